@@ -0,0 +1,62 @@
+/*
+ * Headless first-solution backtracking on a QueensBoard. The search is iterative
+ * (the board itself is the stack), so large N cannot overflow the thread stack.
+ * Placements and backtracks are optionally published for the visualizer to replay.
+ * A budget stops the search early, leaving the board as far as it got.
+ */
+public class BacktrackingSolver {
+    private static final SolverMetrics METRICS = SolverMetrics.of("backtracking");
+
+    private long nodes;
+    private SolverEventBuffer events;
+    private SolverBudget budget = SolverBudget.unlimited();
+
+    public void setEvents(SolverEventBuffer events) {
+        this.events = events;
+    }
+
+    // Checked every few thousand placements, fewer on large boards; solve() returns false once it runs out
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    // Nodes (queen placements) used by the last solve
+    public long getNodes() { return nodes; }
+
+    public int[] solve(int n) {
+        QueensBoard board = new QueensBoard(n);
+        return solve(board) ? board.toArray() : null;
+    }
+
+    public boolean solve(QueensBoard board) {
+        SolverMetrics.Sample sample = METRICS.start(board);
+        boolean solved = search(board);
+        sample.finish(nodes, 0);
+        return solved;
+    }
+
+    private boolean search(QueensBoard board) {
+        int n = board.size();
+        board.clear();
+        nodes = 0;
+        // A placement scans a column of n / 64 words
+        int checkInterval = SolverBudget.checkInterval(n / 64 + 1);
+        int col = 0;
+        int row = board.nextSafeRow(0, 0);
+        while (true) {
+            if (row >= 0) {
+                board.place(row, col);
+                if (events != null) events.publish(SolverEventBuffer.PLACE, col, row);
+                if ((++nodes & (checkInterval - 1)) == 0 && budget.spend(checkInterval)) return false;
+                if (++col == n) return true;
+                row = board.nextSafeRow(col, 0);
+            } else {
+                if (--col < 0) return false;
+                int previous = board.getRow(col);
+                board.remove(col);
+                if (events != null) events.publish(SolverEventBuffer.REMOVE, col, previous);
+                row = board.nextSafeRow(col, previous + 1);
+            }
+        }
+    }
+}
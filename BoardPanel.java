@@ -0,0 +1,226 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/*
+ * Paints an N x N board directly instead of holding one Swing component per square,
+ * so the cost of a board update does not depend on N. Labels are thinned out and
+ * queens fall back to plain markers once the squares get too small to read.
+ *
+ * The panel keeps its own copy of the queens it last showed. A new frame only
+ * repaints the squares whose queen moved; everything else stays on screen. The queen
+ * glyph is rendered once per cell size and colour and then blitted.
+ */
+public class BoardPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    public static final int MAX_DRAWN_SIZE = 256;
+
+    private static final int LEFT_GUTTER = 30;
+    private static final int BOTTOM_GUTTER = 25;
+    private static final int PADDING = 15;
+    private static final int MIN_LABEL_SPACING = 16;
+    private static final int MIN_GLYPH_SIZE = 12;
+    // Past this many changed squares one repaint of the board is cheaper than many small ones
+    private static final int MAX_DIRTY_SQUARES = 64;
+    private static final String QUEEN = "♛";
+    private static final Stroke FRAME_STROKE = new BasicStroke(3);
+
+    private final Color lightSquare = new Color(240, 217, 181);
+    private final Color darkSquare = new Color(181, 136, 99);
+    private final Color mixedSquare = new Color(210, 176, 140);
+    private final Color frameColor = new Color(70, 70, 100);
+    private final Font labelFont = new Font("Arial", Font.BOLD, 14);
+
+    private int boardSize;
+    private int[] shown;
+    private Color queenColor = Color.BLACK;
+
+    // Queen glyph cache, valid for glyphCell and glyphColor
+    private BufferedImage glyph;
+    private int glyphCell;
+    private Color glyphColor;
+
+    public BoardPanel(int boardSize) {
+        this.boardSize = boardSize;
+        this.shown = emptyBoard(boardSize);
+        setPreferredSize(new Dimension(500 + LEFT_GUTTER, 500 + BOTTOM_GUTTER));
+    }
+
+    public void setBoardSize(int boardSize) {
+        this.boardSize = boardSize;
+        this.shown = emptyBoard(boardSize);
+        repaint();
+    }
+
+    public int getBoardSize() { return boardSize; }
+
+    // Copies the solution (null clears the board) and repaints the squares that changed
+    public void setSolution(int[] solution, Color queenColor) {
+        if (!queenColor.equals(this.queenColor)) {
+            this.queenColor = queenColor;
+            copyFrom(solution);
+            repaint();
+            return;
+        }
+        if (boardSize > MAX_DRAWN_SIZE) return;
+        int cell = cellSize();
+        int x0 = LEFT_GUTTER + PADDING;
+        int y0 = PADDING;
+        int dirty = 0;
+        for (int col = 0; col < boardSize; col++) {
+            int row = solution != null && col < solution.length ? solution[col] : -1;
+            if (row < 0 || row >= boardSize) row = -1;
+            int old = shown[col];
+            if (row == old) continue;
+            shown[col] = row;
+            if (cell == 0 || ++dirty > MAX_DIRTY_SQUARES) continue;
+            if (old >= 0) repaint(x0 + col * cell, y0 + old * cell, cell, cell);
+            if (row >= 0) repaint(x0 + col * cell, y0 + row * cell, cell, cell);
+        }
+        if (dirty > MAX_DIRTY_SQUARES) repaint(x0, y0, cell * boardSize, cell * boardSize);
+    }
+
+    private void copyFrom(int[] solution) {
+        // Nothing is kept for boards too large to draw
+        if (boardSize > MAX_DRAWN_SIZE) return;
+        Arrays.fill(shown, -1);
+        if (solution == null) return;
+        int columns = Math.min(solution.length, boardSize);
+        for (int col = 0; col < columns; col++) {
+            if (solution[col] >= 0 && solution[col] < boardSize) shown[col] = solution[col];
+        }
+    }
+
+    private static int[] emptyBoard(int boardSize) {
+        // Boards too large to draw do not need a copy at all
+        int[] board = new int[boardSize <= MAX_DRAWN_SIZE ? boardSize : 0];
+        Arrays.fill(board, -1);
+        return board;
+    }
+
+    // Side of one square in pixels, or 0 when the panel is too small to show the board
+    private int cellSize() {
+        int available = Math.min(getWidth() - LEFT_GUTTER - 2 * PADDING, getHeight() - BOTTOM_GUTTER - 2 * PADDING);
+        if (available <= 0) return 0;
+        // Squares are at least one pixel; very large boards are simply drawn bigger than the panel
+        return Math.max(1, available / boardSize);
+    }
+
+    // Column labels run A-Z while they fit, numbers beyond that
+    public static String columnLabel(int col, int boardSize) {
+        return boardSize <= 26 ? String.valueOf((char) ('A' + col)) : String.valueOf(col + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        if (boardSize > MAX_DRAWN_SIZE) {
+            g2.setColor(Color.DARK_GRAY);
+            g2.setFont(labelFont);
+            String message = "N = " + boardSize + " is too large to draw (limit " + MAX_DRAWN_SIZE + ")";
+            g2.drawString(message, (getWidth() - g2.getFontMetrics().stringWidth(message)) / 2, getHeight() / 2);
+            return;
+        }
+
+        int cell = cellSize();
+        if (cell == 0) return;
+        int boardPixels = cell * boardSize;
+        int x0 = LEFT_GUTTER + PADDING;
+        int y0 = PADDING;
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        paintSquares(g2, clip, x0, y0, cell);
+        // Dirty-square repaints never reach the gutters, so the labels are skipped for them
+        if (clip.x < x0 || clip.y + clip.height > y0 + boardPixels) paintLabels(g2, x0, y0, cell);
+        paintQueens(g2, clip, x0, y0, cell);
+
+        g2.setColor(frameColor);
+        g2.setStroke(FRAME_STROKE);
+        g2.drawRect(x0 - 2, y0 - 2, boardPixels + 3, boardPixels + 3);
+    }
+
+    private void paintSquares(Graphics2D g2, Rectangle clip, int x0, int y0, int cell) {
+        int boardPixels = cell * boardSize;
+        if (cell < 3) {
+            // The checker pattern is not visible at this scale anyway
+            g2.setColor(mixedSquare);
+            g2.fillRect(x0, y0, boardPixels, boardPixels);
+            return;
+        }
+        g2.setColor(lightSquare);
+        g2.fillRect(x0, y0, boardPixels, boardPixels);
+        int firstRow = Math.max(0, (clip.y - y0) / cell);
+        int lastRow = Math.min(boardSize - 1, (clip.y + clip.height - y0) / cell);
+        int firstCol = Math.max(0, (clip.x - x0) / cell);
+        int lastCol = Math.min(boardSize - 1, (clip.x + clip.width - x0) / cell);
+        g2.setColor(darkSquare);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol + ((row + firstCol + 1) & 1); col <= lastCol; col += 2) {
+                g2.fillRect(x0 + col * cell, y0 + row * cell, cell, cell);
+            }
+        }
+    }
+
+    private void paintLabels(Graphics2D g2, int x0, int y0, int cell) {
+        g2.setColor(Color.BLACK);
+        g2.setFont(labelFont);
+        FontMetrics fm = g2.getFontMetrics();
+        int step = Math.max(1, (MIN_LABEL_SPACING + cell - 1) / cell);
+        if (boardSize > 26) step = Math.max(step, (fm.stringWidth(String.valueOf(boardSize)) + 6 + cell - 1) / cell);
+
+        int labelY = y0 + cell * boardSize + 5 + fm.getAscent();
+        for (int col = 0; col < boardSize; col += step) {
+            String label = columnLabel(col, boardSize);
+            g2.drawString(label, x0 + col * cell + (cell - fm.stringWidth(label)) / 2, labelY);
+        }
+        for (int row = 0; row < boardSize; row += step) {
+            String label = String.valueOf(boardSize - row);
+            int y = y0 + row * cell + (cell + fm.getAscent() - fm.getDescent()) / 2;
+            g2.drawString(label, x0 - 8 - fm.stringWidth(label), y);
+        }
+    }
+
+    private void paintQueens(Graphics2D g2, Rectangle clip, int x0, int y0, int cell) {
+        int firstRow = Math.max(0, (clip.y - y0) / cell);
+        int lastRow = Math.min(boardSize - 1, (clip.y + clip.height - y0) / cell);
+        int firstCol = Math.max(0, (clip.x - x0) / cell);
+        int lastCol = Math.min(boardSize - 1, (clip.x + clip.width - x0) / cell);
+        BufferedImage image = cell >= MIN_GLYPH_SIZE ? queenGlyph(cell) : null;
+        g2.setColor(queenColor);
+        for (int col = firstCol; col <= lastCol; col++) {
+            int row = shown[col];
+            if (row < firstRow || row > lastRow) continue;
+            int x = x0 + col * cell;
+            int y = y0 + row * cell;
+            if (image != null) {
+                g2.drawImage(image, x, y, null);
+            } else if (cell >= 3) {
+                g2.fillOval(x, y, cell, cell);
+            } else {
+                g2.fillRect(x, y, cell, cell);
+            }
+        }
+    }
+
+    // The queen drawn into a transparent cell-sized image, rebuilt when the size or colour changes
+    private BufferedImage queenGlyph(int cell) {
+        if (glyph != null && glyphCell == cell && queenColor.equals(glyphColor)) return glyph;
+        BufferedImage image = new BufferedImage(cell, cell, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(new Font("Serif", Font.PLAIN, Math.min(40, cell * 4 / 5)));
+        g.setColor(queenColor);
+        FontMetrics fm = g.getFontMetrics();
+        g.drawString(QUEEN, (cell - fm.stringWidth(QUEEN)) / 2, (cell + fm.getAscent() - fm.getDescent()) / 2);
+        g.dispose();
+        glyph = image;
+        glyphCell = cell;
+        glyphColor = queenColor;
+        return image;
+    }
+}
@@ -1,15 +1,30 @@
 import javax.swing.*;
-import java.util.List;
-import java.util.Random;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.RejectedExecutionException;
 
 public class ChessController {
     private ChessModel model;
     private ChessView view;
+    private final QueensCounter counter = new QueensCounter();
+    private static final int LAS_VEGAS_WORKERS = Runtime.getRuntime().availableProcessors();
+    private final SolutionStore store = new SolutionStore(SolutionStore.DEFAULT_DIRECTORY, counter);
+    private final SplittableRandom sampler = new SplittableRandom();
+    private static final int EVENT_CAPACITY = 4096;
     private boolean isProcessing = false;
+    private EventPlayer player;
+    private final RenderScheduler renderScheduler;
+    private Runnable afterReplay;
+    private SolverJob<?> job;
 
     public ChessController(ChessModel model, ChessView view) {
         this.model = model;
         this.view = view;
+        this.renderScheduler = new RenderScheduler((queens, status) -> {
+            view.drawSolution(queens, model.getCurrentAlgorithm());
+            view.getStatusLabel().setText(status);
+            view.updateExplanation(model.getAlgorithmExplanation());
+        });
         initializeController();
     }
 
@@ -18,16 +33,93 @@ public class ChessController {
         view.updateExplanation(model.getAlgorithmExplanation());
         
         view.getSolveBacktrackingBtn().addActionListener(e -> {
-            if (!isProcessing) {
+            if (!isProcessing && fitsLimit("Backtracking", ChessModel.MAX_BACKTRACKING_SIZE)) {
                 startProcessing("Backtracking");
-                new Thread(this::solveWithBacktracking).start();
+                SolverEventBuffer events = startReplay("Backtracking");
+                SolverBudget budget = view.getSelectedBudget();
+                startJob(budget, events, () -> solveWithBacktracking(events, budget));
             }
         });
 
         view.getSolveConstrainedBtn().addActionListener(e -> {
-            if (!isProcessing) {
+            if (!isProcessing && fitsLimit("Las Vegas", ChessModel.MAX_LAS_VEGAS_SIZE)) {
                 startProcessing("Las Vegas");
-                new Thread(this::solveWithConstrained).start();
+                SolverEventBuffer events = startReplay("Las Vegas");
+                RestartPolicy policy = view.getSelectedRestartPolicy(model.getBoardSize());
+                SolverBudget budget = view.getSelectedBudget();
+                startJob(budget, events, () -> solveWithConstrained(events, policy, budget));
+            }
+        });
+
+        view.getSolveHybridBtn().addActionListener(e -> {
+            if (!isProcessing && fitsLimit("Hybrid", ChessModel.MAX_HYBRID_SIZE)) {
+                startProcessing("Hybrid");
+                SolverEventBuffer events = startReplay("Hybrid");
+                RestartPolicy policy = view.getSelectedRestartPolicy(model.getBoardSize());
+                SolverBudget budget = view.getSelectedBudget();
+                startJob(budget, events, () -> solveWithHybrid(events, policy, budget));
+            }
+        });
+
+        view.getSolveMinConflictsBtn().addActionListener(e -> {
+            if (!isProcessing) {
+                startProcessing("Min-Conflicts");
+                SolverBudget budget = view.getSelectedBudget();
+                startJob(budget, null, () -> solveWithMinConflicts(budget));
+            }
+        });
+
+        view.getCountAllBtn().addActionListener(e -> {
+            if (!isProcessing && fitsLimit("Count All", QueensCounter.MAX_BOARD_SIZE)) {
+                startProcessing("Count All");
+                SolverBudget budget = view.getSelectedBudget();
+                startJob(budget, null, () -> countAllSolutions(budget));
+            }
+        });
+
+        view.getRandomSolutionBtn().addActionListener(e -> {
+            if (!isProcessing && fitsLimit("Random Solution", SolutionStore.MAX_STORED_SIZE)) {
+                startProcessing("Random Solution");
+                // Reading or building the store is bounded by N, so it runs without limits
+                startJob(SolverBudget.unlimited(), null, this::showRandomSolution);
+            }
+        });
+
+        view.getStopBtn().addActionListener(e -> {
+            if (job != null) {
+                job.cancel();
+                // A solver waiting for a slow replay to make room would only see the stop much later
+                if (player != null) player.skipToEnd();
+            }
+        });
+
+        view.getSpeedBox().addActionListener(e -> {
+            if (player != null) player.setSpeed(view.getSelectedSpeed());
+        });
+
+        view.getPauseBtn().addActionListener(e -> {
+            if (player != null) {
+                player.setPaused(!player.isPaused());
+                view.getPauseBtn().setText(player.isPaused() ? "Resume" : "Pause");
+            }
+        });
+
+        view.getStepBtn().addActionListener(e -> {
+            if (player != null) player.step();
+        });
+
+        view.getSkipBtn().addActionListener(e -> {
+            if (player != null) player.skipToEnd();
+        });
+
+        view.getBoardSizeSpinner().addChangeListener(e -> {
+            int boardSize = (Integer) view.getBoardSizeSpinner().getValue();
+            if (!isProcessing && boardSize != model.getBoardSize()) {
+                model.setBoardSize(boardSize);
+                view.setBoardSize(boardSize);
+                view.drawEmptyBoard();
+                view.getStatusLabel().setText("Ready (N = " + boardSize + ")");
+                view.updateExplanation(model.getAlgorithmExplanation());
             }
         });
 
@@ -41,135 +133,316 @@ public class ChessController {
         });
     }
 
+    // False, with a note in the status line, if the board is too large for the algorithm
+    private boolean fitsLimit(String algorithm, int maxSize) {
+        if (model.getBoardSize() <= maxSize) return true;
+        view.getStatusLabel().setText(algorithm + " supports N up to " + maxSize);
+        return false;
+    }
+
     private void startProcessing(String algorithm) {
         isProcessing = true;
+        model.reset();
         model.setCurrentAlgorithm(algorithm);
         view.getSolveBacktrackingBtn().setEnabled(false);
         view.getSolveConstrainedBtn().setEnabled(false);
+        view.getSolveHybridBtn().setEnabled(false);
+        view.getSolveMinConflictsBtn().setEnabled(false);
+        view.getCountAllBtn().setEnabled(false);
+        view.getRandomSolutionBtn().setEnabled(false);
         view.getResetBtn().setEnabled(false);
+        view.getBoardSizeSpinner().setEnabled(false);
+        view.getStopBtn().setEnabled(true);
         view.getStatusLabel().setText(algorithm + " running...");
         view.getAnimationTimer().start();
         view.updateExplanation(model.getAlgorithmExplanation());
     }
 
+    // Sets up an event replay for a drawable board; larger boards run without one
+    private SolverEventBuffer startReplay(String algorithm) {
+        int boardSize = model.getBoardSize();
+        if (boardSize > BoardPanel.MAX_DRAWN_SIZE) return null;
+
+        SolverEventBuffer events = new SolverEventBuffer(EVENT_CAPACITY);
+        player = new EventPlayer(events, boardSize, view.getSelectedSpeed(), new EventPlayer.Listener() {
+            @Override
+            public void replayed(int[] queens, long placements, int lastType, int lastCol) {
+                if (algorithm.equals("Backtracking")) model.setBacktrackingSteps(placements);
+                model.setCurrentStep(lastCol + 1);
+                renderScheduler.submit(queens, lastType == SolverEventBuffer.RESTART
+                        ? algorithm + ": Restarting"
+                        : String.format("%s: %s queen %d/%d", algorithm,
+                            lastType == SolverEventBuffer.PLACE ? "Placing" : "Removing", lastCol + 1, boardSize));
+            }
+
+            @Override
+            public void finished() {
+                player = null;
+                // Draw or discard the last replayed frame before the final result goes up
+                renderScheduler.stop();
+                view.setPlaybackEnabled(false);
+                Runnable done = afterReplay;
+                afterReplay = null;
+                done.run();
+                view.getStatusLabel().setText(String.format("%s | %d frames drawn, %d dropped",
+                        view.getStatusLabel().getText(), renderScheduler.getRenderedFrames(),
+                        renderScheduler.getDroppedFrames()));
+            }
+        });
+        view.setPlaybackEnabled(true);
+        renderScheduler.reset();
+        renderScheduler.start();
+        player.start();
+        return events;
+    }
+
+    // Runs a solve on the shared solver executor; Stop cancels it through its budget
+    private void startJob(SolverBudget budget, SolverEventBuffer events, Runnable solve) {
+        try {
+            job = SolverJob.submit(budget, solve);
+        } catch (RejectedExecutionException e) {
+            if (events != null) events.close();
+            String algorithm = model.getCurrentAlgorithm();
+            finishAfterReplay(() -> {
+                view.getStatusLabel().setText(algorithm + ": too many solver jobs queued, try again later");
+                endProcessing();
+            });
+        }
+    }
+
+    // Status text for a run its budget stopped, e.g. "Hybrid: Stopped (time limit reached)"
+    private static String stopped(String algorithm, SolverBudget budget) {
+        return String.format("%s: Stopped (%s)", algorithm, budget.isStopped() ? budget.getStop() : "interrupted");
+    }
+
+    // Runs on the EDT once the solver is done; waits for the replay to catch up if there is one
+    private void finishAfterReplay(Runnable done) {
+        if (player == null) {
+            done.run();
+            return;
+        }
+        afterReplay = done;
+        player.solverDone();
+    }
+
+    // Solver wall time without the time spent waiting for the replay to make room
+    private static long solverMillis(long startNanos, SolverEventBuffer events) {
+        long stalled = events == null ? 0 : events.getStalledNanos();
+        return (System.nanoTime() - startNanos - stalled) / 1_000_000;
+    }
+
     private void endProcessing() {
         SwingUtilities.invokeLater(() -> {
             isProcessing = false;
+            job = null;
+            view.getStopBtn().setEnabled(false);
             view.getSolveBacktrackingBtn().setEnabled(true);
             view.getSolveConstrainedBtn().setEnabled(true);
+            view.getSolveHybridBtn().setEnabled(true);
+            view.getSolveMinConflictsBtn().setEnabled(true);
+            view.getCountAllBtn().setEnabled(true);
+            view.getRandomSolutionBtn().setEnabled(true);
             view.getResetBtn().setEnabled(true);
+            view.getBoardSizeSpinner().setEnabled(true);
             view.getAnimationTimer().stop();
             view.updateExplanation(model.getAlgorithmExplanation());
         });
     }
 
-    private void solveWithBacktracking() {
-        long startTime = System.currentTimeMillis();
-        model.reset();
-        model.setCurrentAlgorithm("Backtracking");
-        model.setBacktrackingSolution(new int[model.getBoardSize()]);
-        
-        boolean solved = solveBacktracking(0);
-        long duration = System.currentTimeMillis() - startTime;
-        
-        SwingUtilities.invokeLater(() -> {
+    private void solveWithBacktracking(SolverEventBuffer events, SolverBudget budget) {
+        BacktrackingSolver solver = new BacktrackingSolver();
+        solver.setEvents(events);
+        solver.setBudget(budget);
+        long startTime = System.nanoTime();
+        boolean solved = solver.solve(model.getBoard());
+        long duration = solverMillis(startTime, events);
+        int[] solution = solved ? model.getBoard().toArray() : null;
+        if (events != null) events.close();
+
+        SwingUtilities.invokeLater(() -> finishAfterReplay(() -> {
+            model.setBacktrackingSteps(solver.getNodes());
             if (solved) {
+                model.setBacktrackingSolution(solution);
                 view.getStatusLabel().setText(String.format(
                     "Backtracking: %d steps in %d ms", 
                     model.getBacktrackingSteps(), duration
                 ));
-                view.drawSolution(model.getBacktrackingSolution(), "Backtracking");
+                if (model.getBoardSize() <= BoardPanel.MAX_DRAWN_SIZE) {
+                    view.drawSolution(model.getBacktrackingSolution(), "Backtracking");
+                }
+            } else if (budget.isStopped()) {
+                view.getStatusLabel().setText(String.format("%s after %d steps (%d ms)",
+                        stopped("Backtracking", budget), model.getBacktrackingSteps(), duration));
             } else {
                 view.getStatusLabel().setText("Backtracking failed (should never happen)");
             }
             view.updateExplanation(model.getAlgorithmExplanation());
             endProcessing();
-        });
+        }));
     }
 
-    private boolean solveBacktracking(int col) {
-        model.incrementBacktrackingSteps();
-        model.setCurrentStep(col + 1);
-        
-        SwingUtilities.invokeLater(() -> {
-            view.updateExplanation(model.getAlgorithmExplanation());
-        });
+    private void solveWithHybrid(SolverEventBuffer events, RestartPolicy policy, SolverBudget budget) {
+        // The first run for a given N also pays for tuning the prefix length
+        long startTime = System.nanoTime();
+        HybridLasVegas solver = new HybridLasVegas();
+        solver.setEvents(events);
+        solver.setRestartPolicy(policy);
+        solver.setBudget(budget);
+        HybridLasVegas.Result result = solver.solve(model.getBoardSize());
+        long duration = solverMillis(startTime, events);
+        if (events != null) events.close();
 
-        if (col >= model.getBoardSize()) return true;
-
-        for (int row = 0; row < model.getBoardSize(); row++) {
-            if (model.isSafe(row, col, model.getBacktrackingSolution())) {
-                model.getBacktrackingSolution()[col] = row;
-                
-                final int[] partialSolution = new int[model.getBoardSize()];
-                System.arraycopy(model.getBacktrackingSolution(), 0, partialSolution, 0, model.getBoardSize());
-                for (int i = col + 1; i < model.getBoardSize(); i++) {
-                    partialSolution[i] = -1;
+        SwingUtilities.invokeLater(() -> finishAfterReplay(() -> {
+            model.setHybridPrefix(result.getPrefix());
+            model.setHybridRestarts(result.getRestarts());
+            if (result.getSolution() != null) {
+                view.getStatusLabel().setText(String.format(
+                    "Hybrid: k = %d, %d restarts (%s), %d nodes (%d ms)",
+                    result.getPrefix(), result.getRestarts(), policy == null ? "fixed" : policy,
+                    result.getNodes(), duration
+                ));
+                if (model.getBoardSize() <= BoardPanel.MAX_DRAWN_SIZE) {
+                    view.drawSolution(result.getSolution(), "Hybrid");
                 }
-                
-                SwingUtilities.invokeLater(() -> {
-                    view.getStatusLabel().setText(String.format("Backtracking: Placing queen %d/%d", col+1, model.getBoardSize()));
-                    view.drawSolution(partialSolution, "Backtracking");
-                    view.updateExplanation(model.getAlgorithmExplanation());
-                });
-
-                try { Thread.sleep(50); } catch (InterruptedException e) { return false; }
-
-                if (solveBacktracking(col + 1)) return true;
+            } else {
+                view.getStatusLabel().setText(String.format("%s after %d restarts, %d nodes (%d ms)",
+                        stopped("Hybrid", budget), result.getRestarts(), result.getNodes(), duration));
             }
-        }
-        return false;
+            view.updateExplanation(model.getAlgorithmExplanation());
+            endProcessing();
+        }));
     }
 
-    private void solveWithConstrained() {
+    private void solveWithMinConflicts(SolverBudget budget) {
         long startTime = System.currentTimeMillis();
-        model.incrementConstrainedAttempts();
-        model.setCurrentAlgorithm("Las Vegas");
-        model.setCurrentStep(model.getConstrainedAttempts());
-        
+        MinConflicts solver = new MinConflicts();
+        solver.setBudget(budget);
+        int[] solution = solver.solve(model.getBoardSize());
+        long duration = System.currentTimeMillis() - startTime;
+        model.setMinConflictsSteps(solver.getSteps());
+        model.setMinConflictsSwaps(solver.getSwaps());
+
         SwingUtilities.invokeLater(() -> {
+            if (solution != null) {
+                view.getStatusLabel().setText(String.format(
+                    "Min-Conflicts: N = %d solved with %d swaps (%d ms)",
+                    model.getBoardSize(), solver.getSwaps(), duration
+                ));
+                // Boards beyond the drawing limit are solved headless and only reported
+                if (model.getBoardSize() <= BoardPanel.MAX_DRAWN_SIZE) {
+                    view.drawSolution(solution, "Min-Conflicts");
+                }
+            } else {
+                view.getStatusLabel().setText(String.format("%s after %d restarts, %d swaps (%d ms)",
+                        stopped("Min-Conflicts", budget), solver.getRestarts(), solver.getSwaps(), duration));
+            }
             view.updateExplanation(model.getAlgorithmExplanation());
+            endProcessing();
         });
-        
-        int[] solution = constrainedLasVegas();
+    }
+
+    private void countAllSolutions(SolverBudget budget) {
+        long startTime = System.currentTimeMillis();
+        QueensCounter.Counts counts = counter.countSymmetric(model.getBoardSize(), budget);
         long duration = System.currentTimeMillis() - startTime;
-        
+        // A stopped count only covers part of the tree, so the model keeps no total
+        if (!budget.isStopped()) {
+            model.setSolutionCount(counts.getTotal());
+            model.setUniqueSolutionCount(counts.getUnique());
+        }
+
         SwingUtilities.invokeLater(() -> {
-            if (solution != null) {
+            if (budget.isStopped()) {
                 view.getStatusLabel().setText(String.format(
-                    "Las Vegas: Solved in %d attempts (%d ms)",
-                    model.getConstrainedAttempts(), duration
+                    "%s with at least %d solutions (%d unique) for N = %d after %d ms",
+                    stopped("Count All", budget), counts.getTotal(), counts.getUnique(), model.getBoardSize(), duration
                 ));
-                model.setConstrainedSolution(solution);
-                view.drawSolution(model.getConstrainedSolution(), "Las Vegas");
-                view.updateExplanation(model.getAlgorithmExplanation());
-                endProcessing();
             } else {
                 view.getStatusLabel().setText(String.format(
-                    "Las Vegas: Failed attempt %d, retrying...",
-                    model.getConstrainedAttempts()
+                    "Count All: %d solutions (%d unique) for N = %d in %d ms (%d threads)",
+                    counts.getTotal(), counts.getUnique(), model.getBoardSize(), duration, counter.getParallelism()
                 ));
-                view.updateExplanation(model.getAlgorithmExplanation());
-                solveWithConstrained();
             }
+            view.drawEmptyBoard();
+            view.updateExplanation(model.getAlgorithmExplanation());
+            endProcessing();
         });
     }
 
-    private int[] constrainedLasVegas() {
-        Random rand = new Random();
-        int[] queens = new int[model.getBoardSize()];
-        for (int col = 0; col < model.getBoardSize(); col++) {
-            List<Integer> safeRows = model.getSafeRows(col, queens);
-            if (safeRows.isEmpty()) return null;
-            queens[col] = safeRows.get(rand.nextInt(safeRows.size()));
-            
-            final int currentCol = col;
+    // Draws a uniformly random solution from the solution store, building the store on first use
+    private void showRandomSolution() {
+        int boardSize = model.getBoardSize();
+        boolean stored = store.isStored(boardSize);
+        long buildStart = System.nanoTime();
+        SolutionStore.Solutions solutions;
+        try {
+            solutions = store.open(boardSize);
+        } catch (IOException e) {
             SwingUtilities.invokeLater(() -> {
-                view.getStatusLabel().setText(String.format("Las Vegas: Placing queen %d/%d", currentCol+1, model.getBoardSize()));
-                view.updateExplanation(model.getAlgorithmExplanation());
+                view.getStatusLabel().setText("Random Solution: could not open the store (" + e.getMessage() + ")");
+                endProcessing();
             });
-            try {Thread.sleep(50);} catch (InterruptedException e) {return null;}
+            return;
+        }
+        long lookupStart = System.nanoTime();
+        long index = solutions.getCount() == 0 ? -1 : sampler.nextLong(solutions.getCount());
+        int[] solution = index < 0 ? null : solutions.get(index);
+        long lookupNanos = System.nanoTime() - lookupStart;
+        long buildMillis = (lookupStart - buildStart) / 1_000_000;
+        model.setSolutionCount(solutions.getCount());
+
+        SwingUtilities.invokeLater(() -> {
+            String source = stored ? "" : String.format(" (store built in %d ms)", buildMillis);
+            if (solution != null) {
+                view.getStatusLabel().setText(String.format(
+                    "Random Solution: #%d of %d, looked up in %.1f us%s",
+                    index + 1, solutions.getCount(), lookupNanos / 1000.0, source
+                ));
+                view.drawSolution(solution, "Random Solution");
+            } else {
+                view.getStatusLabel().setText("Random Solution: N = " + boardSize + " has no solutions" + source);
+                view.drawEmptyBoard();
+            }
+            view.updateExplanation(model.getAlgorithmExplanation());
+            endProcessing();
+        });
+    }
+
+    private void solveWithConstrained(SolverEventBuffer events, RestartPolicy policy, SolverBudget budget) {
+        // The restart loop runs entirely on the portfolio workers; the EDT only sees the result
+        PortfolioLasVegas portfolio = new PortfolioLasVegas(LAS_VEGAS_WORKERS, policy);
+        portfolio.setBudget(budget);
+        PortfolioLasVegas.Result result = portfolio.solve(model.getBoardSize());
+        long duration = result.getNanos() / 1_000_000;
+
+        // Only the winning board is replayed; the racing workers publish nothing
+        if (events != null) {
+            int[] solution = result.getSolution();
+            if (solution != null) {
+                for (int col = 0; col < solution.length; col++) events.publish(SolverEventBuffer.PLACE, col, solution[col]);
+            }
+            events.close();
         }
-        return queens;
+
+        SwingUtilities.invokeLater(() -> finishAfterReplay(() -> {
+            model.setConstrainedAttempts(result.getTotalAttempts());
+            model.setCurrentStep((int) Math.min(Integer.MAX_VALUE, result.getTotalAttempts()));
+            if (result.getSolution() != null) {
+                view.getStatusLabel().setText(String.format(
+                    "Las Vegas: Solved in %d attempts across %d workers (%s, %d ms, seed %d)",
+                    result.getTotalAttempts(), portfolio.getWorkers(),
+                    policy == null ? "restart at dead end" : policy, duration, result.getSeed()
+                ));
+                model.setConstrainedSolution(result.getSolution());
+                if (model.getBoardSize() <= BoardPanel.MAX_DRAWN_SIZE) {
+                    view.drawSolution(model.getConstrainedSolution(), "Las Vegas");
+                }
+            } else {
+                view.getStatusLabel().setText(String.format("%s after %d attempts (%d ms)",
+                        stopped("Las Vegas", budget), result.getTotalAttempts(), duration));
+            }
+            view.updateExplanation(model.getAlgorithmExplanation());
+            endProcessing();
+        }));
     }
 }
\ No newline at end of file
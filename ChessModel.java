@@ -2,16 +2,35 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ChessModel {
-    private static final int BOARD_SIZE = 8;
+    public static final int DEFAULT_BOARD_SIZE = 8;
+    public static final int MIN_BOARD_SIZE = 4;
+    // Min-Conflicts takes any size up to this; the other searches stop being practical far earlier
+    public static final int MAX_BOARD_SIZE = 10_000_000;
+    public static final int MAX_BACKTRACKING_SIZE = 32;
+    public static final int MAX_HYBRID_SIZE = 1000;
+    public static final int MAX_LAS_VEGAS_SIZE = 2000;
+
+    private int boardSize;
+    private QueensBoard board;
     private int[] backtrackingSolution;
     private int[] constrainedSolution;
-    private int backtrackingSteps;
-    private int constrainedAttempts;
+    private long backtrackingSteps;
+    private long constrainedAttempts;
+    private long solutionCount;
+    private long uniqueSolutionCount;
+    private int hybridPrefix;
+    private long hybridRestarts;
+    private long minConflictsSteps;
+    private long minConflictsSwaps;
     private String currentAlgorithm;
     private int currentStep;
 
     public ChessModel() {
-        reset();
+        this(DEFAULT_BOARD_SIZE);
+    }
+
+    public ChessModel(int boardSize) {
+        setBoardSize(boardSize);
     }
 
     public void reset() {
@@ -19,12 +38,33 @@ public class ChessModel {
         constrainedSolution = null;
         backtrackingSteps = 0;
         constrainedAttempts = 0;
+        solutionCount = 0;
+        uniqueSolutionCount = 0;
+        hybridPrefix = 0;
+        hybridRestarts = 0;
+        minConflictsSteps = 0;
+        minConflictsSwaps = 0;
         currentAlgorithm = null;
         currentStep = 0;
+        board.clear();
     }
 
     public int getBoardSize() {
-        return BOARD_SIZE;
+        return boardSize;
+    }
+
+    // Boards smaller than 4 (other than the trivial 1) have no solution at all
+    public void setBoardSize(int boardSize) {
+        if (boardSize < MIN_BOARD_SIZE || boardSize > MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Board size must be between " + MIN_BOARD_SIZE + " and " + MAX_BOARD_SIZE + ": " + boardSize);
+        }
+        this.boardSize = boardSize;
+        this.board = new QueensBoard(boardSize);
+        reset();
+    }
+
+    public QueensBoard getBoard() {
+        return board;
     }
 
     // Getters and setters
@@ -34,11 +74,31 @@ public class ChessModel {
     public int[] getConstrainedSolution() { return constrainedSolution; }
     public void setConstrainedSolution(int[] solution) { this.constrainedSolution = solution; }
     
-    public int getBacktrackingSteps() { return backtrackingSteps; }
+    public long getBacktrackingSteps() { return backtrackingSteps; }
     public void incrementBacktrackingSteps() { backtrackingSteps++; }
+    public void setBacktrackingSteps(long steps) { this.backtrackingSteps = steps; }
     
-    public int getConstrainedAttempts() { return constrainedAttempts; }
+    public long getConstrainedAttempts() { return constrainedAttempts; }
     public void incrementConstrainedAttempts() { constrainedAttempts++; }
+    public void setConstrainedAttempts(long attempts) { this.constrainedAttempts = attempts; }
+
+    public long getSolutionCount() { return solutionCount; }
+    public void setSolutionCount(long count) { this.solutionCount = count; }
+
+    public long getUniqueSolutionCount() { return uniqueSolutionCount; }
+    public void setUniqueSolutionCount(long count) { this.uniqueSolutionCount = count; }
+
+    public int getHybridPrefix() { return hybridPrefix; }
+    public void setHybridPrefix(int prefix) { this.hybridPrefix = prefix; }
+
+    public long getHybridRestarts() { return hybridRestarts; }
+    public void setHybridRestarts(long restarts) { this.hybridRestarts = restarts; }
+
+    public long getMinConflictsSteps() { return minConflictsSteps; }
+    public void setMinConflictsSteps(long steps) { this.minConflictsSteps = steps; }
+
+    public long getMinConflictsSwaps() { return minConflictsSwaps; }
+    public void setMinConflictsSwaps(long swaps) { this.minConflictsSwaps = swaps; }
 
     public String getCurrentAlgorithm() { return currentAlgorithm; }
     public void setCurrentAlgorithm(String algorithm) { this.currentAlgorithm = algorithm; }
@@ -65,9 +125,49 @@ public class ChessModel {
                         "1. Randomly places queens column by column\n" +
                         "2. For each column, selects a random safe row\n" +
                         "3. If no safe row, restarts\n" +
-                        "4. Continues until solution found\n\n" +
+                        "4. Continues until solution found\n" +
+                        "5. One independent attempt runs per core; the first success wins\n" +
+                        "6. With a restart policy, an attempt backtracks until its node\n" +
+                        "   budget (fixed, Luby or geometric) runs out\n\n" +
                         "Attempts: %d", constrainedAttempts, constrainedAttempts);
                         
+            case "Hybrid":
+                return String.format("Hybrid Las Vegas (k = %d):\n\n" +
+                        "1. Randomly places the first k queens\n" +
+                        "2. Completes the board with backtracking\n" +
+                        "3. Draws a new prefix once the restart policy's node\n" +
+                        "   budget for the attempt runs out\n" +
+                        "4. k is tuned per N by measuring nodes per solution\n\n" +
+                        "Restarts: %d", hybridPrefix, hybridRestarts);
+
+            case "Min-Conflicts":
+                return String.format("Min-Conflicts Repair (N = %d):\n\n" +
+                        "1. Keeps one queen per row and per column\n" +
+                        "2. Greedily places queens on free diagonals\n" +
+                        "3. Swaps a conflicted queen with a random one\n" +
+                        "4. Keeps the swap only if conflicts drop\n\n" +
+                        "Swap attempts: %d\nSwaps kept: %d", boardSize, minConflictsSteps, minConflictsSwaps);
+
+            case "Random Solution":
+                return String.format("Solution Store (N = %d):\n\n" +
+                        "1. The first request for an N enumerates every solution\n" +
+                        "2. Solutions are packed into a few bytes each, sorted,\n" +
+                        "   and written to one file per N\n" +
+                        "3. The file is memory-mapped, so solution k is read\n" +
+                        "   straight from its offset without a search\n" +
+                        "4. A random k gives a uniformly random solution\n\n" +
+                        "Stored solutions: %d", boardSize, solutionCount);
+
+            case "Count All":
+                return String.format("Parallel Enumeration (N = %d):\n\n" +
+                        "1. Only the top half of the first column is searched\n" +
+                        "2. Splits the search tree on the rows of the first columns\n" +
+                        "3. Each prefix becomes a fork/join task\n" +
+                        "4. A solution counts only if it is the smallest of its\n" +
+                        "   rotations and reflections, once as unique and once per\n" +
+                        "   distinct image towards the total\n\n" +
+                        "Solutions: %d\nUnique up to symmetry: %d", boardSize, solutionCount, uniqueSolutionCount);
+
             default:
                 return "Algorithm in progress...";
         }
@@ -84,7 +184,7 @@ public class ChessModel {
 
     public List<Integer> getSafeRows(int col, int[] queens) {
         List<Integer> safeRows = new ArrayList<>();
-        for (int row = 0; row < BOARD_SIZE; row++) {
+        for (int row = 0; row < boardSize; row++) {
             boolean safe = true;
             for (int i = 0; i < col; i++) {
                 if (queens[i] == row || Math.abs(queens[i] - row) == Math.abs(i - col)) {
@@ -3,40 +3,61 @@ import java.awt.*;
 import javax.swing.border.EmptyBorder;
 
 public class ChessView extends JFrame {
-    private JPanel chessBoard;
+    // Replay speeds in events per second; 0 replays as fast as events arrive
+    private static final String[] SPEED_LABELS = {"5 / s", "20 / s", "100 / s", "1000 / s", "Max"};
+    private static final int[] SPEEDS = {5, 20, 100, 1000, EventPlayer.UNLIMITED};
+    // Restart policies for Las Vegas and Hybrid; null keeps the solver's own default
+    private static final String[] RESTART_LABELS = {"Default", "Fixed", "Luby", "Geometric"};
+    private static final String[] RESTART_SPECS = {null, "fixed", "luby", "geometric"};
+    // Budgets for each run; 0 means no limit
+    private static final String[] TIME_LIMIT_LABELS = {"None", "1 s", "10 s", "1 min"};
+    private static final long[] TIME_LIMITS_MS = {0, 1_000, 10_000, 60_000};
+    private static final String[] NODE_LIMIT_LABELS = {"None", "1M", "100M", "10G"};
+    private static final long[] NODE_LIMITS = {0, 1_000_000L, 100_000_000L, 10_000_000_000L};
+    // Shared instances so the board can tell a colour change from a new frame cheaply
+    private static final Color BACKTRACKING_QUEEN = new Color(200, 0, 0);
+    private static final Color HYBRID_QUEEN = new Color(0, 60, 160);
+    private static final Color MIN_CONFLICTS_QUEEN = new Color(120, 0, 140);
+    private static final Color LAS_VEGAS_QUEEN = new Color(0, 100, 0);
+
+    private BoardPanel chessBoard;
     private JPanel mainPanel;
     private JPanel sidePanel;
     private JTextArea explanationArea;
     private JButton solveBacktrackingBtn;
     private JButton solveConstrainedBtn;
+    private JButton solveHybridBtn;
+    private JButton solveMinConflictsBtn;
+    private JButton countAllBtn;
+    private JButton randomSolutionBtn;
     private JButton resetBtn;
+    private JButton stopBtn;
     private JLabel statusLabel;
+    private JSpinner boardSizeSpinner;
+    private JComboBox<String> speedBox;
+    private JComboBox<String> restartBox;
+    private JComboBox<String> timeLimitBox;
+    private JComboBox<String> nodeLimitBox;
+    private JButton pauseBtn;
+    private JButton stepBtn;
+    private JButton skipBtn;
     private Timer animationTimer;
 
-    // Chess colors
-    private final Color lightSquare = new Color(240, 217, 181);
-    private final Color darkSquare = new Color(181, 136, 99);
     //private final Color velvetColor = new Color(30, 30, 60);
     //private final Color highlightLight = new Color(247, 247, 105);
     //private final Color highlightDark = new Color(187, 187, 53);
 
-    public ChessView() {
-        setTitle("8-Queens Problem - Chess Visualizer");
+    public ChessView(int boardSize) {
+        setTitle("N-Queens Problem - Chess Visualizer");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(900, 700); // Increased width for side panel
-        initializeComponents();
+        setSize(1100, 700); // Increased width for side panel
+        initializeComponents(boardSize);
         setupLayout();
     }
 
-    private void initializeComponents() {
-        // Main chess board with external labels
-        chessBoard = new JPanel(new GridLayout(8, 8, 0, 0));
-        chessBoard.setBorder(BorderFactory.createEmptyBorder(20, 40, 20, 20));
-        chessBoard.setPreferredSize(new Dimension(500, 500));
-        chessBoard.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(70, 70, 100), 3),
-            BorderFactory.createEmptyBorder(15, 15, 15, 15)
-        ));
+    private void initializeComponents(int boardSize) {
+        // Main chess board, painted directly with its own labels
+        chessBoard = new BoardPanel(boardSize);
         // Side panel for explanations
         sidePanel = new JPanel(new BorderLayout());
         sidePanel.setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -49,7 +70,7 @@ public class ChessView extends JFrame {
         explanationArea.setWrapStyleWord(true);
         explanationArea.setFont(new Font("Arial", Font.PLAIN, 14));
         explanationArea.setBorder(new EmptyBorder(10, 10, 10, 10));
-        explanationArea.setText("Welcome to the 8-Queens Visualizer!\n\n" +
+        explanationArea.setText("Welcome to the N-Queens Visualizer!\n\n" +
                 "This program demonstrates two algorithms:\n" +
                 "1. Backtracking (systematic search)\n" +
                 "2. Las Vegas (randomized)\n\n" +
@@ -61,16 +82,54 @@ public class ChessView extends JFrame {
         // Control buttons
         solveBacktrackingBtn = new JButton("Backtracking");
         solveConstrainedBtn = new JButton("Las Vegas");
+        solveHybridBtn = new JButton("Hybrid");
+        solveMinConflictsBtn = new JButton("Min-Conflicts");
+        countAllBtn = new JButton("Count All");
+        randomSolutionBtn = new JButton("Random Solution");
         resetBtn = new JButton("Reset");
+        stopBtn = new JButton("Stop");
 
         Font buttonFont = new Font("Arial", Font.BOLD, 14);
         solveBacktrackingBtn.setFont(buttonFont);
         solveConstrainedBtn.setFont(buttonFont);
+        solveHybridBtn.setFont(buttonFont);
+        solveMinConflictsBtn.setFont(buttonFont);
+        countAllBtn.setFont(buttonFont);
+        randomSolutionBtn.setFont(buttonFont);
         resetBtn.setFont(buttonFont);
+        stopBtn.setFont(buttonFont);
 
         styleButton(solveBacktrackingBtn);
         styleButton(solveConstrainedBtn);
+        styleButton(solveHybridBtn);
+        styleButton(solveMinConflictsBtn);
+        styleButton(countAllBtn);
+        styleButton(randomSolutionBtn);
         styleButton(resetBtn);
+        styleButton(stopBtn);
+        stopBtn.setEnabled(false);
+
+        boardSizeSpinner = new JSpinner(new SpinnerNumberModel(boardSize, ChessModel.MIN_BOARD_SIZE, ChessModel.MAX_BOARD_SIZE, 1));
+        boardSizeSpinner.setFont(buttonFont);
+
+        // Replay controls, only active while a solver's events are being shown
+        speedBox = new JComboBox<>(SPEED_LABELS);
+        speedBox.setSelectedIndex(1);
+        pauseBtn = new JButton("Pause");
+        stepBtn = new JButton("Step");
+        skipBtn = new JButton("Skip to End");
+        Font playbackFont = new Font("Arial", Font.PLAIN, 12);
+        speedBox.setFont(playbackFont);
+        pauseBtn.setFont(playbackFont);
+        stepBtn.setFont(playbackFont);
+        skipBtn.setFont(playbackFont);
+        restartBox = new JComboBox<>(RESTART_LABELS);
+        restartBox.setFont(playbackFont);
+        timeLimitBox = new JComboBox<>(TIME_LIMIT_LABELS);
+        timeLimitBox.setFont(playbackFont);
+        nodeLimitBox = new JComboBox<>(NODE_LIMIT_LABELS);
+        nodeLimitBox.setFont(playbackFont);
+        setPlaybackEnabled(false);
 
         statusLabel = new JLabel("Ready", SwingConstants.CENTER);
         statusLabel.setFont(new Font("Arial", Font.BOLD, 14));
@@ -104,40 +163,45 @@ public class ChessView extends JFrame {
         /* mainPanel.setOpaque(true);
         mainPanel.setBackground(velvetColor); */
 
-        // Create a panel for the chessboard with external labels
+        // The board panel paints its own row and column labels
         JPanel boardContainer = new JPanel(new BorderLayout());
-        
-        // Add column labels (A-H) at the bottom
-        JPanel colLabelPanel = new JPanel(new GridLayout(1, 8));
-        colLabelPanel.setBorder(new EmptyBorder(5, 40, 5, 20)); // Match left padding with chessboard
-        for (int col = 0; col < 8; col++) {
-            JLabel label = new JLabel(String.valueOf((char)('A' + col)), SwingConstants.CENTER);
-            label.setFont(new Font("Arial", Font.BOLD, 14));
-            colLabelPanel.add(label);
-        }
-        
-        // Add row labels (1-8) on the left
-        JPanel rowLabelPanel = new JPanel(new GridLayout(8, 1));
-        rowLabelPanel.setPreferredSize(new Dimension(30, 0));
-        for (int row = 0; row < 8; row++) {
-            JLabel label = new JLabel(String.valueOf(8 - row), SwingConstants.CENTER);
-            label.setFont(new Font("Arial", Font.BOLD, 14));
-            rowLabelPanel.add(label);
-        }
-
-        boardContainer.add(colLabelPanel, BorderLayout.SOUTH);
-        boardContainer.add(rowLabelPanel, BorderLayout.WEST);
         boardContainer.add(chessBoard, BorderLayout.CENTER);
 
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
+        JLabel sizeLabel = new JLabel("N:");
+        sizeLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        buttonPanel.add(sizeLabel);
+        buttonPanel.add(boardSizeSpinner);
         buttonPanel.add(solveBacktrackingBtn);
         buttonPanel.add(solveConstrainedBtn);
+        buttonPanel.add(solveHybridBtn);
+        buttonPanel.add(solveMinConflictsBtn);
+        buttonPanel.add(countAllBtn);
+        buttonPanel.add(randomSolutionBtn);
         buttonPanel.add(resetBtn);
+        buttonPanel.add(stopBtn);
+
+        JPanel playbackPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        playbackPanel.add(new JLabel("Replay speed:"));
+        playbackPanel.add(speedBox);
+        playbackPanel.add(pauseBtn);
+        playbackPanel.add(stepBtn);
+        playbackPanel.add(skipBtn);
+        playbackPanel.add(new JLabel("Restarts:"));
+        playbackPanel.add(restartBox);
+        playbackPanel.add(new JLabel("Time limit:"));
+        playbackPanel.add(timeLimitBox);
+        playbackPanel.add(new JLabel("Node limit:"));
+        playbackPanel.add(nodeLimitBox);
+
+        JPanel controlsPanel = new JPanel(new BorderLayout());
+        controlsPanel.add(buttonPanel, BorderLayout.NORTH);
+        controlsPanel.add(playbackPanel, BorderLayout.SOUTH);
 
         // Main layout
         JPanel contentPanel = new JPanel(new BorderLayout());
-        contentPanel.add(buttonPanel, BorderLayout.NORTH);
+        contentPanel.add(controlsPanel, BorderLayout.NORTH);
         
         JPanel centerPanel = new JPanel(new BorderLayout());
         centerPanel.add(boardContainer, BorderLayout.CENTER);
@@ -150,50 +214,69 @@ public class ChessView extends JFrame {
         add(mainPanel);
     }
 
+    public void setPlaybackEnabled(boolean enabled) {
+        pauseBtn.setEnabled(enabled);
+        stepBtn.setEnabled(enabled);
+        skipBtn.setEnabled(enabled);
+        if (!enabled) pauseBtn.setText("Pause");
+    }
+
+    public int getSelectedSpeed() {
+        return SPEEDS[speedBox.getSelectedIndex()];
+    }
+
+    // The chosen restart policy for a board of the given size, or null for the default
+    public RestartPolicy getSelectedRestartPolicy(int boardSize) {
+        String spec = RESTART_SPECS[restartBox.getSelectedIndex()];
+        return spec == null ? null : RestartPolicy.parse(spec, boardSize);
+    }
+
+    // A fresh budget with the chosen limits; its clock starts now
+    public SolverBudget getSelectedBudget() {
+        return new SolverBudget(TIME_LIMITS_MS[timeLimitBox.getSelectedIndex()], NODE_LIMITS[nodeLimitBox.getSelectedIndex()]);
+    }
+
     public void updateExplanation(String text) {
         explanationArea.setText(text);
     }
 
+    public void setBoardSize(int boardSize) {
+        chessBoard.setBoardSize(boardSize);
+    }
+
     public void drawEmptyBoard() {
-        chessBoard.removeAll();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                JPanel square = new JPanel(new BorderLayout());
-                boolean isLight = (row + col) % 2 == 0;
-                square.setBackground(isLight ? lightSquare : darkSquare);
-                chessBoard.add(square);
-            }
-        }
-        chessBoard.revalidate();
-        chessBoard.repaint();
+        chessBoard.setSolution(null, Color.BLACK);
     }
 
     public void drawSolution(int[] solution, String algorithm) {
-        chessBoard.removeAll();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                JPanel square = new JPanel(new BorderLayout());
-                boolean isLight = (row + col) % 2 == 0;
-                square.setBackground(isLight ? lightSquare : darkSquare);
-
-                if (solution != null && col < solution.length && solution[col] == row) {
-                    JLabel queen = new JLabel("♛", SwingConstants.CENTER);
-                    queen.setFont(new Font("Serif", Font.PLAIN, 40));
-                    queen.setForeground(algorithm.equals("Backtracking") ? new Color(200, 0, 0) : new Color(0, 100, 0));
-                    square.add(queen);
-                }
-                chessBoard.add(square);
-            }
+        chessBoard.setSolution(solution, queenColor(algorithm));
+    }
+
+    private Color queenColor(String algorithm) {
+        switch (algorithm) {
+            case "Backtracking": return BACKTRACKING_QUEEN;
+            case "Hybrid": return HYBRID_QUEEN;
+            case "Min-Conflicts": return MIN_CONFLICTS_QUEEN;
+            default: return LAS_VEGAS_QUEEN;
         }
-        chessBoard.revalidate();
-        chessBoard.repaint();
     }
 
     // Getters for UI components
     public JButton getSolveBacktrackingBtn() { return solveBacktrackingBtn; }
     public JButton getSolveConstrainedBtn() { return solveConstrainedBtn; }
+    public JButton getSolveHybridBtn() { return solveHybridBtn; }
+    public JButton getSolveMinConflictsBtn() { return solveMinConflictsBtn; }
+    public JButton getCountAllBtn() { return countAllBtn; }
+    public JButton getRandomSolutionBtn() { return randomSolutionBtn; }
+    public JComboBox<String> getRestartBox() { return restartBox; }
     public JButton getResetBtn() { return resetBtn; }
+    public JButton getStopBtn() { return stopBtn; }
     public JLabel getStatusLabel() { return statusLabel; }
+    public JSpinner getBoardSizeSpinner() { return boardSizeSpinner; }
+    public JComboBox<String> getSpeedBox() { return speedBox; }
+    public JButton getPauseBtn() { return pauseBtn; }
+    public JButton getStepBtn() { return stepBtn; }
+    public JButton getSkipBtn() { return skipBtn; }
     public Timer getAnimationTimer() { return animationTimer; }
     public JTextArea getExplanationArea() { return explanationArea; }
 }
\ No newline at end of file
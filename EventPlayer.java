@@ -0,0 +1,121 @@
+import javax.swing.Timer;
+import java.util.Arrays;
+
+/*
+ * Replays solver events onto a board at a chosen speed on the EDT. The solver runs at
+ * full speed on its own thread and only ever waits when the buffer is full, so the
+ * visualization is an optional consumer rather than part of the algorithm.
+ */
+public class EventPlayer {
+    public static final int UNLIMITED = 0;
+    // Events are consumed on a faster clock than frames are drawn; RenderScheduler coalesces
+    private static final int TICK_MS = 5;
+
+    public interface Listener {
+        // Called on the EDT after a tick or step that applied at least one event; the
+        // array is the player's live board and must be copied if it is kept
+        void replayed(int[] queens, long placements, int lastType, int lastCol);
+
+        // Called on the EDT once the solver is done and every event was shown or skipped
+        void finished();
+    }
+
+    private final SolverEventBuffer events;
+    private final Listener listener;
+    private final int[] queens;
+    private final Timer timer;
+    private int eventsPerSecond;
+    private double allowance;
+    private boolean paused;
+    private boolean solverDone;
+    private boolean finished;
+    private long placements;
+
+    public EventPlayer(SolverEventBuffer events, int boardSize, int eventsPerSecond, Listener listener) {
+        this.events = events;
+        this.listener = listener;
+        this.eventsPerSecond = eventsPerSecond;
+        this.queens = new int[boardSize];
+        Arrays.fill(queens, -1);
+        this.timer = new Timer(TICK_MS, e -> tick());
+    }
+
+    public void start() { timer.start(); }
+
+    public void setSpeed(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+        this.allowance = 0;
+    }
+
+    public boolean isPaused() { return paused; }
+    public void setPaused(boolean paused) { this.paused = paused; }
+
+    // Applies a single event, mainly useful while paused
+    public void step() {
+        if (finished || events.isDetached()) return;
+        apply(1);
+        checkFinished();
+    }
+
+    // Stops replaying; the solver finishes unthrottled and only the result is shown
+    public void skipToEnd() {
+        events.detach();
+        checkFinished();
+    }
+
+    // Called on the EDT when the solver thread has published its last event
+    public void solverDone() {
+        solverDone = true;
+        checkFinished();
+    }
+
+    private void tick() {
+        if (!paused && !events.isDetached()) {
+            int budget;
+            if (eventsPerSecond == UNLIMITED) {
+                budget = Integer.MAX_VALUE;
+            } else {
+                // Never bank more than one tick of events while the solver is behind
+                allowance = Math.min(allowance + eventsPerSecond * TICK_MS / 1000.0, Math.max(1.0, eventsPerSecond * TICK_MS / 1000.0));
+                budget = (int) allowance;
+            }
+            int applied = apply(budget);
+            if (eventsPerSecond != UNLIMITED) allowance -= applied;
+        }
+        checkFinished();
+    }
+
+    private int apply(int budget) {
+        int applied = 0;
+        int lastType = 0;
+        int lastCol = 0;
+        while (applied < budget) {
+            long event = events.poll();
+            if (event == SolverEventBuffer.EMPTY) break;
+            lastType = SolverEventBuffer.type(event);
+            lastCol = SolverEventBuffer.col(event);
+            switch (lastType) {
+                case SolverEventBuffer.PLACE:
+                    queens[lastCol] = SolverEventBuffer.row(event);
+                    placements++;
+                    break;
+                case SolverEventBuffer.REMOVE:
+                    queens[lastCol] = -1;
+                    break;
+                case SolverEventBuffer.RESTART:
+                    Arrays.fill(queens, -1);
+                    break;
+            }
+            applied++;
+        }
+        if (applied > 0) listener.replayed(queens, placements, lastType, lastCol);
+        return applied;
+    }
+
+    private void checkFinished() {
+        if (finished || !solverDone || !(events.isDrained() || events.isDetached())) return;
+        finished = true;
+        timer.stop();
+        listener.finished();
+    }
+}
@@ -0,0 +1,423 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Command-line benchmark mode. Runs one algorithm for a given N and number of trials
+ * with no animation delays and no Swing, and prints wall time and work per trial as
+ * summary percentiles in CSV or JSON. Nothing here touches AWT, so it runs on machines
+ * without a display.
+ *
+ *   java Main --algo lasvegas --n 32 --trials 1000 --format json
+ *
+ * lookup draws a random solution from the memory-mapped SolutionStore per trial; the
+ * store for N is built (or opened) before the timed trials start.
+ *
+ * --restart fixed[:nodes]|luby[:unit]|geometric[:first[:factor]] makes the lasvegas and
+ * portfolio attempts node-limited randomized backtracking runs and sets the node limits
+ * of hybrid attempts. Hybrid tunes its prefix once, before the trials, for at most
+ * HYBRID_TUNING_MILLIS; a tuning cut short uses the best prefix measured so far.
+ *
+ * --metrics appends the SolverMetrics counters collected during the timed trials.
+ *
+ * --analyze runs --trials Las Vegas solves in parallel and prints their distribution
+ * (attempts, nodes, where failed attempts die) next to the backtracking node count.
+ *
+ * --verify checks the full and symmetry-reduced counts for N = 1..--n against the
+ * published sequences (OEIS A000170 and A002562) and exits non-zero on a mismatch.
+ */
+public class HeadlessRunner {
+    private static final String USAGE =
+            "Usage: java Main [--algo backtracking|lasvegas|portfolio|hybrid|minconflicts|count|unique|lookup]\n" +
+            "                 [--n N] [--trials T] [--warmup W] [--seed S] [--threads P]\n" +
+            "                 [--restart fixed[:nodes]|luby[:unit]|geometric[:first[:factor]]]\n" +
+            "                 [--format csv|json] [--raw] [--metrics] [--verify] [--analyze]";
+
+    private static final long HYBRID_TUNING_MILLIS = 10_000;
+
+    // Total solutions (A000170) and solutions unique up to symmetry (A002562), N = 1..16
+    private static final long[] KNOWN_TOTAL = {
+            1, 0, 0, 2, 10, 4, 40, 92, 352, 724, 2680, 14200, 73712, 365596, 2279184, 14772512};
+    private static final long[] KNOWN_UNIQUE = {
+            1, 0, 0, 1, 2, 1, 6, 12, 46, 92, 341, 1787, 9233, 45752, 285053, 1846955};
+
+    private String algorithm = "lasvegas";
+    private int n = 8;
+    private int trials = 100;
+    private int warmup = 0;
+    private long seed = new SplittableRandom().nextLong();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String format = "csv";
+    private boolean raw;
+    private String restartSpec;
+    private RestartPolicy restartPolicy;
+    private boolean verify;
+    private boolean metrics;
+    private boolean analyze;
+    private SolutionStore.Solutions solutions;
+    private int hybridPrefix;
+
+    public static void main(String[] args) {
+        HeadlessRunner runner = new HeadlessRunner();
+        try {
+            runner.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        if (runner.verify) {
+            System.exit(runner.verifyCounts() ? 0 : 1);
+        }
+        if (runner.analyze) {
+            runner.analyzeLasVegas();
+            return;
+        }
+        runner.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--raw")) {
+                raw = true;
+                continue;
+            }
+            if (arg.equals("--metrics")) {
+                metrics = true;
+                continue;
+            }
+            if (arg.equals("--analyze")) {
+                analyze = true;
+                continue;
+            }
+            if (arg.equals("--verify")) {
+                verify = true;
+                continue;
+            }
+            if (arg.equals("--help") || arg.equals("-h")) throw new IllegalArgumentException("N-Queens headless runner");
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            try {
+                switch (arg) {
+                    case "--algo": algorithm = value.toLowerCase(Locale.ROOT); break;
+                    case "--n": n = Integer.parseInt(value); break;
+                    case "--trials": trials = Integer.parseInt(value); break;
+                    case "--warmup": warmup = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--format": format = value.toLowerCase(Locale.ROOT); break;
+                    case "--restart": restartSpec = value; break;
+                    default: throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number for " + arg + ": " + value);
+            }
+        }
+        if (n < 1) throw new IllegalArgumentException("N must be positive: " + n);
+        if (trials < 1) throw new IllegalArgumentException("Trials must be positive: " + trials);
+        if (threads < 1) throw new IllegalArgumentException("Threads must be positive: " + threads);
+        if (!format.equals("csv") && !format.equals("json")) throw new IllegalArgumentException("Unknown format " + format);
+        if (restartSpec != null) restartPolicy = RestartPolicy.parse(restartSpec, n);
+        workUnit();
+    }
+
+    private String workUnit() {
+        switch (algorithm) {
+            case "backtracking": return "nodes";
+            case "lasvegas": case "portfolio": return "attempts";
+            case "hybrid": return "nodes";
+            case "minconflicts": return "swap_attempts";
+            case "count": return "solutions";
+            case "unique": return "unique_solutions";
+            case "lookup": return "solution_index";
+            default: throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        }
+    }
+
+    private void run() {
+        boolean parallel = algorithm.equals("count") || algorithm.equals("unique") || algorithm.equals("portfolio");
+        ForkJoinPool pool = parallel ? new ForkJoinPool(threads) : null;
+        if (algorithm.equals("hybrid")) {
+            SolverBudget tuning = new SolverBudget(HYBRID_TUNING_MILLIS, 0);
+            hybridPrefix = HybridLasVegas.tunedPrefix(n, tuning);
+            if (tuning.isStopped()) {
+                System.err.println("Hybrid tuning stopped after " + HYBRID_TUNING_MILLIS + " ms; using prefix " + hybridPrefix);
+            }
+        }
+        if (algorithm.equals("lookup")) {
+            try {
+                solutions = new SolutionStore().open(n);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Cannot open the solution store: " + e.getMessage());
+                System.exit(1);
+            }
+            if (solutions.getCount() == 0) {
+                System.err.println("N = " + n + " has no solutions to look up");
+                System.exit(1);
+            }
+        }
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < warmup; i++) runTrial(seeds.nextLong(), pool);
+        for (SolverMetrics solverMetrics : SolverMetrics.all()) solverMetrics.reset();
+
+        long[] wallNanos = new long[trials];
+        long[] work = new long[trials];
+        long[] trialSeeds = new long[trials];
+        for (int i = 0; i < trials; i++) {
+            trialSeeds[i] = seeds.nextLong();
+            long start = System.nanoTime();
+            work[i] = runTrial(trialSeeds[i], pool);
+            wallNanos[i] = System.nanoTime() - start;
+        }
+        if (pool != null) pool.shutdown();
+
+        if (format.equals("json")) {
+            printJson(wallNanos, work, trialSeeds);
+        } else {
+            printCsv(wallNanos, work, trialSeeds);
+        }
+        if (metrics) printMetrics();
+    }
+
+    private long runTrial(long trialSeed, ForkJoinPool pool) {
+        switch (algorithm) {
+            case "backtracking": {
+                BacktrackingSolver solver = new BacktrackingSolver();
+                solver.solve(n);
+                return solver.getNodes();
+            }
+            case "lasvegas": {
+                SplittableRandom random = new SplittableRandom(trialSeed);
+                QueensBoard board = new QueensBoard(n);
+                SolverMetrics.Sample sample = PortfolioLasVegas.METRICS.start(board);
+                long attempts = 1;
+                if (restartPolicy == null) {
+                    while (!PortfolioLasVegas.attempt(board, random)) attempts++;
+                } else {
+                    RandomizedBacktracking search = new RandomizedBacktracking();
+                    while (!search.attempt(board, random, restartPolicy.cutoff(attempts - 1))) attempts++;
+                }
+                sample.finish(board.getPlacements(), attempts - 1);
+                PortfolioLasVegas.METRICS.recordSuccess(attempts);
+                return attempts;
+            }
+            case "portfolio":
+                return new PortfolioLasVegas(threads, restartPolicy, pool).solve(n, trialSeed).getTotalAttempts();
+            case "hybrid": {
+                HybridLasVegas solver = new HybridLasVegas(trialSeed);
+                solver.setRestartPolicy(restartPolicy);
+                return solver.solve(n, hybridPrefix).getNodes();
+            }
+            case "minconflicts": {
+                MinConflicts solver = new MinConflicts(trialSeed);
+                solver.solve(n);
+                return solver.getSteps();
+            }
+            case "count":
+                return new QueensCounter(pool).count(n);
+            case "unique":
+                return new QueensCounter(pool).countSymmetric(n).getUnique();
+            case "lookup": {
+                long index = new SplittableRandom(trialSeed).nextLong(solutions.getCount());
+                solutions.get(index);
+                return index;
+            }
+            default:
+                throw new IllegalStateException(algorithm);
+        }
+    }
+
+    private void analyzeLasVegas() {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        LasVegasAnalyzer.Stats stats = new LasVegasAnalyzer(pool).analyze(n, trials, seed);
+        pool.shutdown();
+        LogHistogram attempts = stats.getAttempts();
+        LogHistogram nodes = stats.getNodes();
+        long[] depths = stats.getFailureDepths();
+        long failures = stats.getTotalAttempts() - stats.getTrials();
+        double versusBacktracking = nodes.getMean() / Math.max(1, stats.getBacktrackingNodes());
+
+        if (format.equals("json")) {
+            StringBuilder json = new StringBuilder();
+            json.append(String.format(Locale.ROOT,
+                    "{\"n\":%d,\"trials\":%d,\"seed\":%d,\"threads\":%d,\"wall_ms\":%.3f," +
+                    "\"success_probability\":%.6f,\"backtracking_nodes\":%d,\"mean_nodes_vs_backtracking\":%.4f," +
+                    "\"mean_failure_depth\":%.3f,",
+                    n, stats.getTrials(), seed, threads, stats.getNanos() / 1e6, stats.getSuccessProbability(),
+                    stats.getBacktrackingNodes(), versusBacktracking, stats.getMeanFailureDepth()));
+            appendJsonDistribution(json, "attempts", attempts);
+            json.append(',');
+            appendJsonDistribution(json, "nodes", nodes);
+            json.append(",\"failure_depths\":[");
+            for (int d = 0; d < depths.length; d++) {
+                if (d > 0) json.append(',');
+                json.append(depths[d]);
+            }
+            System.out.println(json.append("]}"));
+            return;
+        }
+        System.out.println("n,trials,seed,threads,wall_ms,success_probability,backtracking_nodes,mean_nodes_vs_backtracking,mean_failure_depth");
+        System.out.printf(Locale.ROOT, "%d,%d,%d,%d,%.3f,%.6f,%d,%.4f,%.3f%n%n", n, stats.getTrials(), seed, threads,
+                stats.getNanos() / 1e6, stats.getSuccessProbability(), stats.getBacktrackingNodes(),
+                versusBacktracking, stats.getMeanFailureDepth());
+        System.out.println("metric,mean,stddev,p50,p90,p99,p99.9,max");
+        printCsvDistribution("attempts", attempts);
+        printCsvDistribution("nodes", nodes);
+        System.out.println();
+        System.out.println("failure_depth,attempts,fraction");
+        for (int d = 0; d < depths.length; d++) {
+            if (depths[d] == 0) continue;
+            System.out.printf(Locale.ROOT, "%d,%d,%.6f%n", d, depths[d], (double) depths[d] / failures);
+        }
+    }
+
+    private static void printCsvDistribution(String metric, LogHistogram histogram) {
+        System.out.printf(Locale.ROOT, "%s,%.3f,%.3f,%d,%d,%d,%d,%d%n", metric, histogram.getMean(), histogram.getStdDev(),
+                histogram.percentile(50), histogram.percentile(90), histogram.percentile(99),
+                histogram.percentile(99.9), histogram.getMax());
+    }
+
+    private static void appendJsonDistribution(StringBuilder json, String name, LogHistogram histogram) {
+        json.append(String.format(Locale.ROOT,
+                "\"%s\":{\"mean\":%.3f,\"stddev\":%.3f,\"p50\":%d,\"p90\":%d,\"p99\":%d,\"p99.9\":%d,\"max\":%d}",
+                name, histogram.getMean(), histogram.getStdDev(), histogram.percentile(50), histogram.percentile(90),
+                histogram.percentile(99), histogram.percentile(99.9), histogram.getMax()));
+    }
+
+    private boolean verifyCounts() {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        QueensCounter counter = new QueensCounter(pool);
+        int maxN = Math.min(n, KNOWN_TOTAL.length);
+        boolean ok = true;
+        System.out.println("n,total,unique,symmetric_total,expected_total,expected_unique,full_ms,symmetric_ms,status");
+        for (int size = 1; size <= maxN; size++) {
+            long start = System.nanoTime();
+            long total = counter.count(size);
+            long middle = System.nanoTime();
+            QueensCounter.Counts counts = counter.countSymmetric(size);
+            long end = System.nanoTime();
+            boolean match = total == KNOWN_TOTAL[size - 1] && counts.getTotal() == KNOWN_TOTAL[size - 1]
+                    && counts.getUnique() == KNOWN_UNIQUE[size - 1];
+            ok &= match;
+            System.out.printf(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%.3f,%.3f,%s%n", size, total, counts.getUnique(),
+                    counts.getTotal(), KNOWN_TOTAL[size - 1], KNOWN_UNIQUE[size - 1],
+                    (middle - start) / 1e6, (end - middle) / 1e6, match ? "ok" : "MISMATCH");
+        }
+        pool.shutdown();
+        return ok;
+    }
+
+    private void printMetrics() {
+        if (format.equals("json")) {
+            StringBuilder json = new StringBuilder("{\"metrics\":[");
+            for (SolverMetrics m : SolverMetrics.all()) {
+                if (json.charAt(json.length() - 1) != '[') json.append(',');
+                json.append(String.format(Locale.ROOT,
+                        "{\"solver\":\"%s\",\"solves\":%d,\"nodes\":%d,\"safety_checks\":%d,\"backtracks\":%d," +
+                        "\"restarts\":%d,\"placements\":%d,\"solver_ms\":%d,\"placements_per_s\":%.1f," +
+                        "\"successes\":%d,\"mean_attempts\":%.3f,\"attempts_histogram\":%s}",
+                        m.getSolver(), m.getSolves(), m.getNodesExpanded(), m.getSafetyChecks(), m.getBacktracks(),
+                        m.getRestarts(), m.getPlacements(), m.getSolverMillis(), m.getPlacementsPerSecond(),
+                        m.getSuccesses(), m.getMeanAttemptsToSuccess(), Arrays.toString(m.getAttemptsHistogram()).replace(" ", "")));
+            }
+            System.out.println(json.append("]}"));
+            return;
+        }
+        System.out.println("solver,metric,value");
+        for (SolverMetrics m : SolverMetrics.all()) {
+            String solver = m.getSolver();
+            System.out.println(solver + ",solves," + m.getSolves());
+            System.out.println(solver + ",nodes," + m.getNodesExpanded());
+            System.out.println(solver + ",safety_checks," + m.getSafetyChecks());
+            System.out.println(solver + ",backtracks," + m.getBacktracks());
+            System.out.println(solver + ",restarts," + m.getRestarts());
+            System.out.println(solver + ",placements," + m.getPlacements());
+            System.out.println(solver + ",solver_ms," + m.getSolverMillis());
+            System.out.printf(Locale.ROOT, "%s,placements_per_s,%.1f%n", solver, m.getPlacementsPerSecond());
+            System.out.println(solver + ",successes," + m.getSuccesses());
+            System.out.printf(Locale.ROOT, "%s,mean_attempts,%.3f%n", solver, m.getMeanAttemptsToSuccess());
+            long[] histogram = m.getAttemptsHistogram();
+            // Bucket i holds successes that took 2^i to 2^(i+1) - 1 attempts
+            for (int i = 0; i < histogram.length; i++) {
+                System.out.println(solver + ",attempts_" + (1L << i) + "_to_" + ((1L << (i + 1)) - 1) + "," + histogram[i]);
+            }
+        }
+    }
+
+    private void printCsv(long[] wallNanos, long[] work, long[] trialSeeds) {
+        if (raw) {
+            System.out.println("algo,n,trial,seed,wall_ms," + workUnit());
+            for (int i = 0; i < trials; i++) {
+                System.out.printf(Locale.ROOT, "%s,%d,%d,%d,%.3f,%d%n", algorithm, n, i, trialSeeds[i], wallNanos[i] / 1e6, work[i]);
+            }
+            return;
+        }
+        System.out.println("algo,n,trials,seed,metric,mean,min,p50,p90,p99,max");
+        printCsvRow("wall_ms", millis(wallNanos));
+        printCsvRow(workUnit(), toDoubles(work));
+    }
+
+    private void printCsvRow(String metric, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        System.out.printf(Locale.ROOT, "%s,%d,%d,%d,%s,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                algorithm, n, trials, seed, metric, mean(sorted), sorted[0],
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[sorted.length - 1]);
+    }
+
+    private void printJson(long[] wallNanos, long[] work, long[] trialSeeds) {
+        StringBuilder json = new StringBuilder();
+        json.append(String.format(Locale.ROOT, "{\"algo\":\"%s\",\"n\":%d,\"trials\":%d,\"seed\":%d,\"threads\":%d,\"work_unit\":\"%s\",",
+                algorithm, n, trials, seed, threads, workUnit()));
+        appendJsonSummary(json, "wall_ms", millis(wallNanos));
+        json.append(',');
+        appendJsonSummary(json, "work", toDoubles(work));
+        if (raw) {
+            json.append(",\"runs\":[");
+            for (int i = 0; i < trials; i++) {
+                if (i > 0) json.append(',');
+                json.append(String.format(Locale.ROOT, "{\"seed\":%d,\"wall_ms\":%.3f,\"work\":%d}", trialSeeds[i], wallNanos[i] / 1e6, work[i]));
+            }
+            json.append(']');
+        }
+        json.append('}');
+        System.out.println(json);
+    }
+
+    private static void appendJsonSummary(StringBuilder json, String name, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        json.append(String.format(Locale.ROOT,
+                "\"%s\":{\"mean\":%.3f,\"min\":%.3f,\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"max\":%.3f}",
+                name, mean(sorted), sorted[0], percentile(sorted, 50), percentile(sorted, 90),
+                percentile(sorted, 99), sorted[sorted.length - 1]));
+    }
+
+    // Nearest-rank percentile of an already sorted array
+    static double percentile(double[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values) sum += v;
+        return sum / values.length;
+    }
+
+    private static double[] millis(long[] nanos) {
+        double[] result = new double[nanos.length];
+        for (int i = 0; i < nanos.length; i++) result[i] = nanos[i] / 1e6;
+        return result;
+    }
+
+    private static double[] toDoubles(long[] values) {
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) result[i] = values[i];
+        return result;
+    }
+}
@@ -0,0 +1,226 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Places the first k queens at random, like the Las Vegas solver, and completes the
+ * board with deterministic backtracking. A prefix that cannot be completed within the
+ * node limit is thrown away and a new one is drawn. The best k depends on N, so the
+ * tuner measures nodes per solved board over a range of k and the result is cached.
+ * The node limit of each attempt comes from a RestartPolicy, by default a fixed one.
+ * A SolverBudget bounds the whole run across restarts, including the tuning on the
+ * first run for an N; a tuning it cuts short is used for that run but not cached.
+ */
+public class HybridLasVegas {
+    private static final int TUNING_TRIALS = 50;
+    private static final int TUNING_POINTS = 16;
+    private static final Map<Integer, Integer> tunedPrefixes = new ConcurrentHashMap<>();
+    private static final SolverMetrics METRICS = SolverMetrics.of("hybrid");
+
+    private final SplittableRandom random;
+    private long nodes;
+    private long nodeLimit;
+    private int checkInterval = 1;
+    private SolverEventBuffer events;
+    private RestartPolicy restartPolicy;
+    private SolverBudget budget = SolverBudget.unlimited();
+
+    public HybridLasVegas() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public HybridLasVegas(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Placements, backtracks and restarts are published here for the visualizer
+    public void setEvents(SolverEventBuffer events) {
+        this.events = events;
+    }
+
+    // Node limits for successive attempts; null uses defaultNodeLimit(n) for every attempt
+    public void setRestartPolicy(RestartPolicy restartPolicy) {
+        this.restartPolicy = restartPolicy;
+    }
+
+    // Spans all attempts of a solve(); the result has no solution if it runs out first
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    public static class Result {
+        private final int[] solution;
+        private final int prefix;
+        private final long restarts;
+        private final long nodes;
+        private final long nanos;
+
+        Result(int[] solution, int prefix, long restarts, long nodes, long nanos) {
+            this.solution = solution;
+            this.prefix = prefix;
+            this.restarts = restarts;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        public int[] getSolution() { return solution; }
+        public int getPrefix() { return prefix; }
+        public long getRestarts() { return restarts; }
+        public long getNodes() { return nodes; }
+        public long getNanos() { return nanos; }
+    }
+
+    public static class Tuning {
+        private final int[] prefixes;
+        private final double[] costs;
+        private final int best;
+
+        Tuning(int[] prefixes, double[] costs, int best) {
+            this.prefixes = prefixes;
+            this.costs = costs;
+            this.best = best;
+        }
+
+        public int[] getPrefixes() { return prefixes; }
+        // Nodes per solved board; infinite when no trial succeeded
+        public double[] getCosts() { return costs; }
+        public int getBestPrefix() { return best; }
+    }
+
+    // Suffix searches are cut off after this many nodes and the prefix is redrawn
+    public static long defaultNodeLimit(int n) {
+        return Math.max(1_000L, 4L * n * n);
+    }
+
+    public Result solve(int n) {
+        return solve(n, tunedPrefix(n, budget));
+    }
+
+    public Result solve(int n, int prefix) {
+        long start = System.nanoTime();
+        QueensBoard board = new QueensBoard(n);
+        RestartPolicy policy = restartPolicy != null ? restartPolicy : RestartPolicy.fixed(defaultNodeLimit(n));
+        long totalNodes = 0;
+        long restarts = 0;
+        SolverMetrics.Sample sample = METRICS.start(board);
+        while (true) {
+            boolean solved = attempt(board, prefix, policy.cutoff(restarts));
+            totalNodes += nodes;
+            if (solved) {
+                sample.finish(totalNodes, restarts);
+                METRICS.recordSuccess(restarts + 1);
+                return new Result(board.toArray(), prefix, restarts, totalNodes, System.nanoTime() - start);
+            }
+            restarts++;
+            if (spendRemainder()) break;
+        }
+        sample.finish(totalNodes, restarts);
+        return new Result(null, prefix, restarts, totalNodes, System.nanoTime() - start);
+    }
+
+    // Nodes used by the last attempt
+    public long getNodes() { return nodes; }
+
+    public boolean attempt(QueensBoard board, int prefix, long limit) {
+        board.clear();
+        if (events != null) events.publish(SolverEventBuffer.RESTART, 0, 0);
+        nodes = 0;
+        nodeLimit = limit;
+        // A placement scans a column of n / 64 words
+        checkInterval = SolverBudget.checkInterval(board.size() / 64 + 1);
+        int randomColumns = Math.min(prefix, board.size());
+        for (int col = 0; col < randomColumns; col++) {
+            int safeRows = board.countSafeRows(col);
+            if (safeRows == 0) return false;
+            int row = board.nthSafeRow(random.nextInt(safeRows));
+            board.place(row, col);
+            if (events != null) events.publish(SolverEventBuffer.PLACE, col, row);
+            if ((++nodes & (checkInterval - 1)) == 0 && budget.spend(checkInterval)) return false;
+        }
+        return complete(board, randomColumns);
+    }
+
+    // Charges the nodes of the last attempt past its last whole check interval; true once the budget has run out
+    private boolean spendRemainder() {
+        return budget.spend(nodes & (checkInterval - 1));
+    }
+
+    // Backtracking over the columns from start on; iterative like BacktrackingSolver (the
+    // board is the stack), so a long suffix cannot overflow the thread stack
+    private boolean complete(QueensBoard board, int start) {
+        int n = board.size();
+        int col = start;
+        if (col == n) return true;
+        int row = board.nextSafeRow(col, 0);
+        while (true) {
+            if (row >= 0) {
+                if (++nodes > nodeLimit) return false;
+                if ((nodes & (checkInterval - 1)) == 0 && budget.spend(checkInterval)) return false;
+                board.place(row, col);
+                if (events != null) events.publish(SolverEventBuffer.PLACE, col, row);
+                if (++col == n) return true;
+                row = board.nextSafeRow(col, 0);
+            } else {
+                // The random prefix is never backtracked into
+                if (--col < start) return false;
+                int previous = board.getRow(col);
+                board.remove(col);
+                if (events != null) events.publish(SolverEventBuffer.REMOVE, col, previous);
+                row = board.nextSafeRow(col, previous + 1);
+            }
+        }
+    }
+
+    public static int tunedPrefix(int n) {
+        return tunedPrefix(n, SolverBudget.unlimited());
+    }
+
+    public static int tunedPrefix(int n, SolverBudget budget) {
+        Integer cached = tunedPrefixes.get(n);
+        if (cached != null) return cached;
+        int prefix = tune(n, TUNING_TRIALS, new SplittableRandom().nextLong(), budget).getBestPrefix();
+        if (!budget.isStopped()) tunedPrefixes.putIfAbsent(n, prefix);
+        return prefix;
+    }
+
+    // Scans k downwards from n (pure Las Vegas) and stops once the cost has clearly
+    // passed its minimum, since short prefixes leave exponentially large suffixes
+    public static Tuning tune(int n, int trials, long seed) {
+        return tune(n, trials, seed, SolverBudget.unlimited());
+    }
+
+    // Stops at the budget with the points measured in full so far (pure Las Vegas if none)
+    public static Tuning tune(int n, int trials, long seed, SolverBudget budget) {
+        int points = Math.min(n + 1, TUNING_POINTS);
+        int[] prefixes = new int[points];
+        double[] costs = new double[points];
+        HybridLasVegas solver = new HybridLasVegas(seed);
+        solver.setBudget(budget);
+        QueensBoard board = new QueensBoard(n);
+        long limit = defaultNodeLimit(n);
+        int best = 0;
+        int evaluated = 0;
+        int worse = 0;
+        for (int i = 0; i < points; i++) {
+            int prefix = points == n + 1 ? n - i : (int) ((long) (points - 1 - i) * n / (points - 1));
+            long spent = 0;
+            int successes = 0;
+            for (int t = 0; t < trials; t++) {
+                if (solver.attempt(board, prefix, limit)) successes++;
+                spent += solver.getNodes();
+                if (solver.spendRemainder()) break;
+            }
+            // A point cut short by the budget is not a fair measurement
+            if (budget.isStopped()) break;
+            prefixes[i] = prefix;
+            costs[i] = successes == 0 ? Double.POSITIVE_INFINITY : (double) spent / successes;
+            evaluated++;
+            if (costs[i] < costs[best]) best = i;
+            // Two points in a row well above the best one end the scan; one could just be noise
+            worse = costs[best] < Double.POSITIVE_INFINITY && costs[i] > 2 * costs[best] ? worse + 1 : 0;
+            if (worse == 2) break;
+        }
+        return new Tuning(Arrays.copyOf(prefixes, evaluated), Arrays.copyOf(costs, evaluated), evaluated == 0 ? n : prefixes[best]);
+    }
+}
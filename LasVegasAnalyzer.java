@@ -0,0 +1,136 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Runtime distribution of the Las Vegas solver over a large number of independent
+ * solves. Trials are split into fork/join tasks; each leaf runs its share of trials
+ * into its own Stats (histograms and counters of fixed size) and the Stats are merged
+ * as tasks join, so memory does not grow with the number of trials and no counter is
+ * shared between threads. Every leaf draws from its own split of the seed, so a run is
+ * reproducible regardless of how many threads execute it.
+ *
+ * Besides attempts and nodes per solved board it records the column at which each
+ * failed attempt ran out of safe rows, and it compares the cost with the node count of
+ * deterministic backtracking for the same N.
+ */
+public class LasVegasAnalyzer {
+    // Trials per leaf task; large enough that splitting costs nothing next to the solves
+    private static final long LEAF_TRIALS = 1024;
+
+    private final ForkJoinPool pool;
+
+    public LasVegasAnalyzer() {
+        this(SolverJob.forkJoinPool());
+    }
+
+    public LasVegasAnalyzer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static class Stats {
+        private final int n;
+        private final LogHistogram attempts = new LogHistogram();
+        private final LogHistogram nodes = new LogHistogram();
+        private final long[] failureDepths;
+        private long totalAttempts;
+        private long backtrackingNodes;
+        private long nanos;
+
+        Stats(int n) {
+            this.n = n;
+            this.failureDepths = new long[n];
+        }
+
+        public int getBoardSize() { return n; }
+        public long getTrials() { return attempts.getCount(); }
+        public long getTotalAttempts() { return totalAttempts; }
+        // Attempts and nodes (queen placements) needed per solved board
+        public LogHistogram getAttempts() { return attempts; }
+        public LogHistogram getNodes() { return nodes; }
+        // failureDepths[d] counts failed attempts that placed d queens and found column d blocked
+        public long[] getFailureDepths() { return failureDepths; }
+        public long getBacktrackingNodes() { return backtrackingNodes; }
+        public long getNanos() { return nanos; }
+
+        // Chance that a single attempt completes the board
+        public double getSuccessProbability() {
+            return totalAttempts == 0 ? 0 : (double) getTrials() / totalAttempts;
+        }
+
+        public double getMeanFailureDepth() {
+            long failures = 0;
+            double sum = 0;
+            for (int d = 0; d < n; d++) {
+                failures += failureDepths[d];
+                sum += (double) d * failureDepths[d];
+            }
+            return failures == 0 ? 0 : sum / failures;
+        }
+
+        void add(Stats other) {
+            attempts.add(other.attempts);
+            nodes.add(other.nodes);
+            for (int d = 0; d < n; d++) failureDepths[d] += other.failureDepths[d];
+            totalAttempts += other.totalAttempts;
+        }
+    }
+
+    public Stats analyze(int n, long trials, long seed) {
+        if (n < 4 && n != 1) throw new IllegalArgumentException("No solution exists for N = " + n);
+        if (trials < 1) throw new IllegalArgumentException("Trials must be positive: " + trials);
+        long start = System.nanoTime();
+        Stats stats = pool.invoke(new TrialTask(n, trials, new SplittableRandom(seed)));
+        stats.nanos = System.nanoTime() - start;
+        BacktrackingSolver backtracking = new BacktrackingSolver();
+        backtracking.solve(n);
+        stats.backtrackingNodes = backtracking.getNodes();
+        return stats;
+    }
+
+    private static class TrialTask extends RecursiveTask<Stats> {
+        private static final long serialVersionUID = 1L;
+        private final int n;
+        private final long trials;
+        private final SplittableRandom random;
+
+        TrialTask(int n, long trials, SplittableRandom random) {
+            this.n = n;
+            this.trials = trials;
+            this.random = random;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (trials <= LEAF_TRIALS) return runTrials();
+            long half = trials / 2;
+            // The split depends only on the trial count, which keeps runs reproducible
+            TrialTask left = new TrialTask(n, half, random.split());
+            TrialTask right = new TrialTask(n, trials - half, random.split());
+            left.fork();
+            Stats stats = right.compute();
+            stats.add(left.join());
+            return stats;
+        }
+
+        private Stats runTrials() {
+            Stats stats = new Stats(n);
+            QueensBoard board = new QueensBoard(n);
+            for (long t = 0; t < trials; t++) {
+                long attempts = 0;
+                long nodes = 0;
+                while (true) {
+                    attempts++;
+                    boolean solved = PortfolioLasVegas.attempt(board, random);
+                    nodes += board.getPlaced();
+                    if (solved) break;
+                    stats.failureDepths[board.getPlaced()]++;
+                }
+                stats.attempts.record(attempts);
+                stats.nodes.record(nodes);
+                stats.totalAttempts += attempts;
+            }
+            return stats;
+        }
+    }
+}
@@ -2,9 +2,14 @@ import javax.swing.SwingUtilities;
 
 public class Main {
     public static void main(String[] args) {
+        // Any argument selects the headless runner, which must not load AWT
+        if (args.length > 0) {
+            HeadlessRunner.main(args);
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             ChessModel model = new ChessModel();
-            ChessView view = new ChessView();
+            ChessView view = new ChessView(model.getBoardSize());
             new ChessController(model, view);
             view.setVisible(true);
         });
@@ -0,0 +1,150 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * Min-conflicts repair for very large boards. Queens are kept as a permutation of the
+ * rows, so every row holds exactly one queen and only the two diagonal families need
+ * counters; those are plain int arrays updated in O(1) per move. A greedy placement
+ * leaves only a handful of conflicts, which are then repaired by swapping the rows of
+ * a conflicted queen and a random partner whenever that lowers the conflict count.
+ * Repair iterations are charged to an optional SolverBudget.
+ */
+public class MinConflicts {
+    private static final int GREEDY_TRIES = 20;
+    private static final long MAX_REPAIR_STEPS_PER_QUEEN = 50;
+    private static final SolverMetrics METRICS = SolverMetrics.of("minconflicts");
+    private static final int CHECK_INTERVAL = 1 << 16;
+
+    private final SplittableRandom random;
+    private int n;
+    private int[] queens;
+    private int[] diagonals;      // queens per row + col
+    private int[] antiDiagonals;  // queens per row - col + n - 1
+    private long steps;
+    private long swaps;
+    private long restarts;
+    private SolverBudget budget = SolverBudget.unlimited();
+
+    public MinConflicts() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public MinConflicts(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public long getSteps() { return steps; }
+    public long getSwaps() { return swaps; }
+    public long getRestarts() { return restarts; }
+
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    // Returns queens[col] = row, or null if the budget ran out or the thread was interrupted
+    public int[] solve(int n) {
+        if (n < 4 && n != 1) throw new IllegalArgumentException("No solution exists for N = " + n);
+        this.n = n;
+        this.queens = new int[n];
+        this.diagonals = new int[2 * n - 1];
+        this.antiDiagonals = new int[2 * n - 1];
+        steps = 0;
+        swaps = 0;
+        restarts = 0;
+
+        SolverMetrics.Sample sample = METRICS.start();
+        while (!budget.isExhausted()) {
+            placeGreedily();
+            if (repair()) {
+                sample.finish(steps, restarts, swaps);
+                METRICS.recordSuccess(restarts + 1);
+                return queens;
+            }
+            restarts++;
+        }
+        sample.finish(steps, restarts, swaps);
+        return null;
+    }
+
+    private void placeGreedily() {
+        Arrays.fill(diagonals, 0);
+        Arrays.fill(antiDiagonals, 0);
+        for (int i = 0; i < n; i++) queens[i] = i;
+
+        // Column col picks from the rows still unused in queens[col..n-1]
+        for (int col = 0; col < n; col++) {
+            int pick = col + random.nextInt(n - col);
+            for (int t = 1; t < GREEDY_TRIES && attacked(queens[pick], col); t++) {
+                pick = col + random.nextInt(n - col);
+            }
+            int row = queens[pick];
+            queens[pick] = queens[col];
+            queens[col] = row;
+            diagonals[row + col]++;
+            antiDiagonals[row - col + n - 1]++;
+        }
+    }
+
+    // Works through a stack of conflicted columns; columns that are still (or newly)
+    // conflicted after a swap go back on the stack
+    private boolean repair() {
+        int[] pending = new int[64];
+        int size = 0;
+        for (int col = 0; col < n; col++) {
+            if (conflicts(col) > 0) {
+                if (size == pending.length) pending = Arrays.copyOf(pending, size * 2);
+                pending[size++] = col;
+            }
+        }
+
+        long stepsLeft = MAX_REPAIR_STEPS_PER_QUEEN * n + 10_000L;
+        while (size > 0) {
+            if (stepsLeft-- == 0 || ((stepsLeft & (CHECK_INTERVAL - 1)) == 0 && budget.spend(CHECK_INTERVAL))) return false;
+            int col = pending[size - 1];
+            if (conflicts(col) == 0) {
+                size--;
+                continue;
+            }
+            int partner = random.nextInt(n);
+            if (partner == col) continue;
+            steps++;
+            int before = conflicts(col) + conflicts(partner);
+            swap(col, partner);
+            if (conflicts(col) + conflicts(partner) >= before) {
+                swap(col, partner);
+                continue;
+            }
+            swaps++;
+            if (conflicts(partner) > 0) {
+                if (size == pending.length) pending = Arrays.copyOf(pending, size * 2);
+                pending[size++] = partner;
+            }
+        }
+        return true;
+    }
+
+    private boolean attacked(int row, int col) {
+        return diagonals[row + col] > 0 || antiDiagonals[row - col + n - 1] > 0;
+    }
+
+    // Other queens sharing a diagonal with the queen in this column
+    private int conflicts(int col) {
+        int row = queens[col];
+        return diagonals[row + col] + antiDiagonals[row - col + n - 1] - 2;
+    }
+
+    private void swap(int a, int b) {
+        int rowA = queens[a];
+        int rowB = queens[b];
+        diagonals[rowA + a]--;
+        antiDiagonals[rowA - a + n - 1]--;
+        diagonals[rowB + b]--;
+        antiDiagonals[rowB - b + n - 1]--;
+        queens[a] = rowB;
+        queens[b] = rowA;
+        diagonals[rowB + a]++;
+        antiDiagonals[rowB - a + n - 1]++;
+        diagonals[rowA + b]++;
+        antiDiagonals[rowA - b + n - 1]++;
+    }
+}
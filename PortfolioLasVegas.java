@@ -0,0 +1,195 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Races independent Las Vegas attempts on a pool's threads (by default the shared
+ * solver pool, so no threads are started per solve); the first worker to complete
+ * a board wins and the others stop at their next restart. Worker i draws from the i-th
+ * split of a master SplittableRandom, so a recorded (seed, worker, attempt) triple is
+ * enough to replay the winning board exactly.
+ *
+ * By default an attempt gives up at the first column with no safe row. With a restart
+ * policy an attempt is a randomized backtracking run instead, and worker attempt i may
+ * expand the policy's cutoff(i) nodes before restarting.
+ *
+ * All workers charge their placements to one SolverBudget; when it runs out they stop
+ * like losers do, and the result has no solution.
+ */
+public class PortfolioLasVegas {
+    public static final SolverMetrics METRICS = SolverMetrics.of("lasvegas");
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    private final int workers;
+    private final RestartPolicy restartPolicy;
+    private final ForkJoinPool pool;
+    private SolverBudget budget = SolverBudget.unlimited();
+
+    public PortfolioLasVegas() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public PortfolioLasVegas(int workers) {
+        this(workers, null);
+    }
+
+    // A null policy restarts at the first dead end
+    public PortfolioLasVegas(int workers, RestartPolicy restartPolicy) {
+        this(workers, restartPolicy, SolverJob.forkJoinPool());
+    }
+
+    // Workers beyond the pool's parallelism wait for a free thread
+    public PortfolioLasVegas(int workers, RestartPolicy restartPolicy, ForkJoinPool pool) {
+        if (workers < 1) throw new IllegalArgumentException("Need at least one worker: " + workers);
+        this.workers = workers;
+        this.restartPolicy = restartPolicy;
+        this.pool = pool;
+    }
+
+    public int getWorkers() { return workers; }
+    public RestartPolicy getRestartPolicy() { return restartPolicy; }
+
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    public static class Result {
+        private final int[] solution;
+        private final long seed;
+        private final int winner;
+        private final long winnerAttempts;
+        private final long totalAttempts;
+        private final long nanos;
+
+        Result(int[] solution, long seed, int winner, long winnerAttempts, long totalAttempts, long nanos) {
+            this.solution = solution;
+            this.seed = seed;
+            this.winner = winner;
+            this.winnerAttempts = winnerAttempts;
+            this.totalAttempts = totalAttempts;
+            this.nanos = nanos;
+        }
+
+        // null when the run was interrupted or ran out of budget before any worker succeeded
+        public int[] getSolution() { return solution; }
+        public long getSeed() { return seed; }
+        public int getWinner() { return winner; }
+        public long getWinnerAttempts() { return winnerAttempts; }
+        public long getTotalAttempts() { return totalAttempts; }
+        public long getNanos() { return nanos; }
+    }
+
+    public Result solve(int n) {
+        return solve(n, new SplittableRandom().nextLong());
+    }
+
+    public Result solve(int n, long seed) {
+        long start = System.nanoTime();
+        SplittableRandom[] streams = streams(seed, workers);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<long[]> winning = new AtomicReference<>();
+        AtomicReference<int[]> solution = new AtomicReference<>();
+        LongAdder totalAttempts = new LongAdder();
+
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            final int worker = i;
+            tasks[i] = pool.submit(() -> {
+                QueensBoard board = new QueensBoard(n);
+                SplittableRandom random = streams[worker];
+                RandomizedBacktracking search = restartPolicy == null ? null : new RandomizedBacktracking();
+                if (search != null) search.setBudget(budget);
+                SolverMetrics.Sample sample = METRICS.start(board);
+                long attempts = 0;
+                long charged = 0;
+                boolean won = false;
+                while (!stop.get()) {
+                    attempts++;
+                    boolean solved = search == null
+                            ? attempt(board, random, budget)
+                            : search.attempt(board, random, restartPolicy.cutoff(attempts - 1));
+                    if (solved) {
+                        if (winning.compareAndSet(null, new long[] {worker, attempts})) {
+                            solution.set(board.toArray());
+                            stop.set(true);
+                            won = true;
+                        }
+                        break;
+                    }
+                    if (board.getPlacements() - charged >= CHECK_INTERVAL) {
+                        if (budget.spend(board.getPlacements() - charged)) break;
+                        charged = board.getPlacements();
+                    }
+                }
+                totalAttempts.add(attempts);
+                // Every attempt places at least one queen, so placements are the nodes here
+                sample.finish(board.getPlacements(), won ? attempts - 1 : attempts);
+                if (won) METRICS.recordSuccess(attempts);
+            });
+        }
+
+        try {
+            for (ForkJoinTask<?> task : tasks) task.get();
+        } catch (InterruptedException e) {
+            stop.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            stop.set(true);
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) throw (Error) cause;
+            throw (RuntimeException) cause;
+        }
+
+        long[] win = winning.get();
+        return new Result(win == null ? null : solution.get(), seed,
+                win == null ? -1 : (int) win[0], win == null ? 0 : win[1],
+                totalAttempts.sum(), System.nanoTime() - start);
+    }
+
+    // Rebuilds the board a worker produced on a given attempt of a recorded run
+    public static int[] replay(int n, long seed, int worker, long attempt) {
+        return replay(n, seed, worker, attempt, null);
+    }
+
+    // Same as replay(), for a run that used the given restart policy
+    public static int[] replay(int n, long seed, int worker, long attempt, RestartPolicy restartPolicy) {
+        SplittableRandom random = streams(seed, worker + 1)[worker];
+        QueensBoard board = new QueensBoard(n);
+        RandomizedBacktracking search = new RandomizedBacktracking();
+        boolean solved = false;
+        for (long i = 0; i < attempt; i++) {
+            solved = restartPolicy == null ? attempt(board, random) : search.attempt(board, random, restartPolicy.cutoff(i));
+        }
+        return solved ? board.toArray() : null;
+    }
+
+    // One randomized pass: a uniformly random safe row for each column, giving up at the first dead end
+    public static boolean attempt(QueensBoard board, SplittableRandom random) {
+        return attempt(board, random, null);
+    }
+
+    // Same, also giving up when the budget (if any) has run out; the caller charges the placements
+    public static boolean attempt(QueensBoard board, SplittableRandom random, SolverBudget budget) {
+        board.clear();
+        // Only attempts long enough to reach a check interval look at the budget
+        int checkMask = SolverBudget.checkInterval(board.size() / 64 + 1) - 1;
+        for (int col = 0; col < board.size(); col++) {
+            if (budget != null && (col & checkMask) == checkMask && budget.isExhausted()) return false;
+            int safeRows = board.countSafeRows(col);
+            if (safeRows == 0) return false;
+            board.place(board.nthSafeRow(random.nextInt(safeRows)), col);
+        }
+        return true;
+    }
+
+    private static SplittableRandom[] streams(long seed, int count) {
+        SplittableRandom master = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) streams[i] = master.split();
+        return streams;
+    }
+}
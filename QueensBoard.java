@@ -0,0 +1,153 @@
+import java.util.Arrays;
+
+/*
+ * Headless N-Queens board. Occupied rows and both diagonal families are kept as
+ * bitsets, so checking a square or finding the free rows of a column takes a few
+ * word operations and never allocates. Queens are placed column by column and
+ * queens[col] holds the row (or -1 while the column is empty).
+ *
+ * The board also counts the rows it tested and the queens placed and removed. These
+ * are plain per-board fields that only grow; solvers fold the differences into
+ * SolverMetrics once per solve, so the hot path never touches shared state.
+ */
+public class QueensBoard {
+    private final int n;
+    private final int words;
+    private final long lastWordMask;
+    private final int[] queens;
+    private final long[] rows;
+    private final long[] diagonals;      // indexed by row + col
+    private final long[] antiDiagonals;  // indexed by row - col + n - 1
+    private final long[] safe;           // scratch mask filled by countSafeRows
+    private int placed;
+    private long safetyChecks;
+    private long placements;
+    private long removals;
+
+    public QueensBoard(int n) {
+        if (n < 1) throw new IllegalArgumentException("Board size must be positive: " + n);
+        this.n = n;
+        this.words = (n + 63) >>> 6;
+        this.lastWordMask = (n & 63) == 0 ? -1L : (1L << (n & 63)) - 1;
+        this.queens = new int[n];
+        this.rows = new long[words];
+        // Diagonal windows are read up to one word past (words * 64 + n), see window()
+        this.diagonals = new long[words + (n >>> 6) + 2];
+        this.antiDiagonals = new long[words + (n >>> 6) + 2];
+        this.safe = new long[words];
+        clear();
+    }
+
+    public int size() { return n; }
+    public int getPlaced() { return placed; }
+    public int getRow(int col) { return queens[col]; }
+
+    // Rows tested for safety, queens placed and queens removed over the board's lifetime
+    public long getSafetyChecks() { return safetyChecks; }
+    public long getPlacements() { return placements; }
+    public long getRemovals() { return removals; }
+
+    public void clear() {
+        Arrays.fill(queens, -1);
+        Arrays.fill(rows, 0L);
+        Arrays.fill(diagonals, 0L);
+        Arrays.fill(antiDiagonals, 0L);
+        placed = 0;
+    }
+
+    public boolean isSafe(int row, int col) {
+        safetyChecks++;
+        return !test(rows, row) && !test(diagonals, row + col) && !test(antiDiagonals, row - col + n - 1);
+    }
+
+    public void place(int row, int col) {
+        queens[col] = row;
+        set(rows, row);
+        set(diagonals, row + col);
+        set(antiDiagonals, row - col + n - 1);
+        placed++;
+        placements++;
+    }
+
+    public void remove(int col) {
+        int row = queens[col];
+        if (row < 0) return;
+        queens[col] = -1;
+        unset(rows, row);
+        unset(diagonals, row + col);
+        unset(antiDiagonals, row - col + n - 1);
+        placed--;
+        removals++;
+    }
+
+    // First safe row >= fromRow in the given column, or -1 if there is none
+    public int nextSafeRow(int col, int fromRow) {
+        if (fromRow >= n) return -1;
+        int w = fromRow >>> 6;
+        long mask = safeWord(w, col) & (-1L << (fromRow & 63));
+        while (true) {
+            if (mask != 0) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(mask);
+                safetyChecks += row - fromRow + 1;
+                return row;
+            }
+            if (++w == words) {
+                safetyChecks += n - fromRow;
+                return -1;
+            }
+            mask = safeWord(w, col);
+        }
+    }
+
+    // Counts the safe rows of a column and remembers them for nthSafeRow
+    public int countSafeRows(int col) {
+        safetyChecks += n;
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            safe[w] = safeWord(w, col);
+            count += Long.bitCount(safe[w]);
+        }
+        return count;
+    }
+
+    // k-th (0-based) safe row found by the last countSafeRows call
+    public int nthSafeRow(int k) {
+        for (int w = 0; w < words; w++) {
+            long mask = safe[w];
+            int bits = Long.bitCount(mask);
+            if (k < bits) {
+                for (; k > 0; k--) mask &= mask - 1;
+                return (w << 6) + Long.numberOfTrailingZeros(mask);
+            }
+            k -= bits;
+        }
+        return -1;
+    }
+
+    public int[] toArray() {
+        return queens.clone();
+    }
+
+    public void copyTo(int[] dest) {
+        System.arraycopy(queens, 0, dest, 0, n);
+    }
+
+    private long safeWord(int w, int col) {
+        int base = w << 6;
+        long taken = rows[w] | window(diagonals, base + col) | window(antiDiagonals, base - col + n - 1);
+        return w == words - 1 ? ~taken & lastWordMask : ~taken;
+    }
+
+    // 64 bits of a bitset starting at an arbitrary bit offset
+    private static long window(long[] bits, int offset) {
+        int i = offset >>> 6;
+        int shift = offset & 63;
+        long value = bits[i] >>> shift;
+        if (shift != 0) value |= bits[i + 1] << (64 - shift);
+        return value;
+    }
+
+    private static boolean test(long[] bits, int i) { return (bits[i >>> 6] & (1L << i)) != 0; }
+    private static void set(long[] bits, int i) { bits[i >>> 6] |= 1L << i; }
+    private static void unset(long[] bits, int i) { bits[i >>> 6] &= ~(1L << i); }
+}
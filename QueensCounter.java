@@ -0,0 +1,216 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/*
+ * Counts or enumerates every N-Queens solution. The search tree is split on the rows
+ * chosen for the first few columns; each prefix becomes a fork/join task that finishes
+ * its subtree with a sequential bitmask search, and the per-task counts are summed as
+ * the tasks are joined, so no counter is ever shared between threads.
+ *
+ * countSymmetric() uses the board's eight symmetries (rotations and reflections). Every
+ * solution's orbit has a lexicographically smallest member, and that member always has
+ * its first queen in the top half of the first column, so only that half-board is
+ * searched. Each solution found there is kept only if it is the smallest of its orbit,
+ * and counts once towards the fundamental total and orbit-size times towards the total.
+ *
+ * With a SolverBudget the subtree searches charge their nodes every CHECK_INTERVAL and
+ * stop when it runs out; the counts are then those of the part of the tree searched.
+ */
+public class QueensCounter {
+    public static final int MAX_BOARD_SIZE = 63;
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    // Fundamental (unique up to symmetry) and total solution counts for one N
+    public static class Counts {
+        private long unique;
+        private long total;
+
+        public long getUnique() { return unique; }
+        public long getTotal() { return total; }
+
+        private void add(Counts other) {
+            unique += other.unique;
+            total += other.total;
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    public QueensCounter() {
+        this(SolverJob.forkJoinPool());
+    }
+
+    public QueensCounter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public long count(int n) {
+        return pool.invoke(new PrefixTask(n, splitDepth(n), null, false, SolverBudget.unlimited())).getTotal();
+    }
+
+    public Counts countSymmetric(int n) {
+        return countSymmetric(n, SolverBudget.unlimited());
+    }
+
+    // Partial counts if the budget runs out; check budget.isStopped()
+    public Counts countSymmetric(int n, SolverBudget budget) {
+        return pool.invoke(new PrefixTask(n, splitDepth(n), null, true, budget));
+    }
+
+    // The sink is called concurrently from worker threads with a scratch array
+    // (queens[col] = row) that is only valid for the duration of the call
+    public long enumerate(int n, Consumer<int[]> sink) {
+        return pool.invoke(new PrefixTask(n, splitDepth(n), sink, false, SolverBudget.unlimited())).getTotal();
+    }
+
+    private static int splitDepth(int n) {
+        return n < 12 ? 2 : 3;
+    }
+
+    private static void checkSize(int n) {
+        if (n < 1 || n > MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 1 and " + MAX_BOARD_SIZE + ": " + n);
+        }
+    }
+
+    private static class PrefixTask extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+        private final int n;
+        private final int splitDepth;
+        private final Consumer<int[]> sink;
+        private final boolean symmetric;
+        private final SolverBudget budget;
+        private final int[] prefix;
+        private final int col;
+        private final long rows, diagonals, antiDiagonals;
+
+        PrefixTask(int n, int splitDepth, Consumer<int[]> sink, boolean symmetric, SolverBudget budget) {
+            this(n, splitDepth, sink, symmetric, budget, new int[0], 0, 0L, 0L, 0L);
+            checkSize(n);
+        }
+
+        private PrefixTask(int n, int splitDepth, Consumer<int[]> sink, boolean symmetric, SolverBudget budget,
+                           int[] prefix, int col, long rows, long diagonals, long antiDiagonals) {
+            this.n = n;
+            this.splitDepth = splitDepth;
+            this.sink = sink;
+            this.symmetric = symmetric;
+            this.budget = budget;
+            this.prefix = prefix;
+            this.col = col;
+            this.rows = rows;
+            this.diagonals = diagonals;
+            this.antiDiagonals = antiDiagonals;
+        }
+
+        @Override
+        protected Counts compute() {
+            long all = (1L << n) - 1;
+            if (col >= splitDepth || col == n) {
+                int[] queens = new int[n];
+                System.arraycopy(prefix, 0, queens, 0, col);
+                Search search = new Search(n, sink, symmetric, budget, queens);
+                if (!budget.isStopped()) search.run(col, rows, diagonals, antiDiagonals);
+                return search.counts;
+            }
+
+            long free = ~(rows | diagonals | antiDiagonals) & all;
+            // Canonical solutions start in the top half (middle row included) of the first column
+            if (symmetric && col == 0) free &= (1L << ((n + 1) / 2)) - 1;
+            PrefixTask[] children = new PrefixTask[Long.bitCount(free)];
+            for (int i = 0; free != 0; i++) {
+                long bit = free & -free;
+                free ^= bit;
+                int[] childPrefix = new int[col + 1];
+                System.arraycopy(prefix, 0, childPrefix, 0, col);
+                childPrefix[col] = Long.numberOfTrailingZeros(bit);
+                children[i] = new PrefixTask(n, splitDepth, sink, symmetric, budget, childPrefix, col + 1,
+                        rows | bit, ((diagonals | bit) << 1) & all, (antiDiagonals | bit) >>> 1);
+            }
+            invokeAll(children);
+            Counts total = new Counts();
+            for (PrefixTask child : children) total.add(child.join());
+            return total;
+        }
+    }
+
+    // Sequential bitmask search for one subtree; diagonals shift one row per column
+    private static class Search {
+        private final int n;
+        private final long all;
+        private final Consumer<int[]> sink;
+        private final boolean symmetric;
+        private final SolverBudget budget;
+        private final int[] queens;
+        private final int[] columnOfRow;
+        private final Counts counts = new Counts();
+        private long nodes;
+        private boolean stopped;
+
+        Search(int n, Consumer<int[]> sink, boolean symmetric, SolverBudget budget, int[] queens) {
+            this.n = n;
+            this.all = (1L << n) - 1;
+            this.sink = sink;
+            this.symmetric = symmetric;
+            this.budget = budget;
+            this.queens = queens;
+            this.columnOfRow = symmetric ? new int[n] : null;
+        }
+
+        void run(int col, long rows, long diagonals, long antiDiagonals) {
+            if (col == n) {
+                if (!symmetric) {
+                    if (sink != null) sink.accept(queens);
+                    counts.total++;
+                    return;
+                }
+                int orbit = orbitSize();
+                if (orbit > 0) {
+                    counts.unique++;
+                    counts.total += orbit;
+                }
+                return;
+            }
+            if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && budget.spend(CHECK_INTERVAL)) stopped = true;
+            long free = ~(rows | diagonals | antiDiagonals) & all;
+            while (free != 0 && !stopped) {
+                long bit = free & -free;
+                free ^= bit;
+                queens[col] = Long.numberOfTrailingZeros(bit);
+                run(col + 1, rows | bit, ((diagonals | bit) << 1) & all, (antiDiagonals | bit) >>> 1);
+            }
+        }
+
+        // Size of the solution's orbit (8, 4 or 2 distinct images, 1 for N = 1), or 0 if
+        // one of its images is lexicographically smaller and will be counted instead
+        private int orbitSize() {
+            for (int col = 0; col < n; col++) columnOfRow[queens[col]] = col;
+            int fixed = 1;
+            // The other seven symmetries: row flip, column flip, half turn, and the same
+            // four applied to the transposed board (the inverse permutation)
+            for (int symmetry = 1; symmetry < 8; symmetry++) {
+                int cmp = compareImage(symmetry);
+                if (cmp < 0) return 0;
+                if (cmp == 0) fixed++;
+            }
+            return 8 / fixed;
+        }
+
+        private int compareImage(int symmetry) {
+            int[] source = symmetry < 4 ? queens : columnOfRow;
+            boolean flipRows = (symmetry & 1) != 0;
+            boolean flipColumns = (symmetry & 2) != 0;
+            for (int col = 0; col < n; col++) {
+                int row = source[flipColumns ? n - 1 - col : col];
+                if (flipRows) row = n - 1 - row;
+                if (row != queens[col]) return row < queens[col] ? -1 : 1;
+            }
+            return 0;
+        }
+    }
+}
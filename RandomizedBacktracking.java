@@ -0,0 +1,66 @@
+import java.util.SplittableRandom;
+
+/*
+ * Backtracking with randomized value order, cut off after a node budget. Each column
+ * tries its safe rows starting from a random row and wrapping around, so a run that
+ * gets stuck deep in a bad subtree is abandoned once the budget runs out and the next
+ * run (chosen by a RestartPolicy) starts over with different random choices. Like
+ * BacktrackingSolver the search is iterative, with the board as its stack.
+ */
+public class RandomizedBacktracking {
+    private int[] start = new int[0];
+    private long nodes;
+    private SolverBudget budget = SolverBudget.unlimited();
+
+    // Nodes (queen placements) used by the last attempt
+    public long getNodes() { return nodes; }
+
+    // Checked for time and cancellation during long attempts; the caller charges the nodes
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    // One run of at most nodeLimit placements; false if the budget ran out first
+    public boolean attempt(QueensBoard board, SplittableRandom random, long nodeLimit) {
+        int n = board.size();
+        if (start.length != n) start = new int[n];
+        board.clear();
+        nodes = 0;
+        int checkInterval = SolverBudget.checkInterval(n / 64 + 1);
+        int col = 0;
+        start[0] = random.nextInt(n);
+        int row = firstRow(board, 0);
+        while (true) {
+            if (row >= 0) {
+                if (nodes == nodeLimit) return false;
+                if ((++nodes & (checkInterval - 1)) == 0 && budget.isExhausted()) return false;
+                board.place(row, col);
+                if (++col == n) return true;
+                start[col] = random.nextInt(n);
+                row = firstRow(board, col);
+            } else {
+                if (--col < 0) return false;
+                int previous = board.getRow(col);
+                board.remove(col);
+                row = nextRow(board, col, previous);
+            }
+        }
+    }
+
+    // Rows of a column are visited in the order start, start + 1, ..., n - 1, 0, ..., start - 1
+    private int firstRow(QueensBoard board, int col) {
+        int row = board.nextSafeRow(col, start[col]);
+        if (row >= 0) return row;
+        row = board.nextSafeRow(col, 0);
+        return row < start[col] ? row : -1;
+    }
+
+    private int nextRow(QueensBoard board, int col, int previous) {
+        int row = board.nextSafeRow(col, previous + 1);
+        if (previous >= start[col]) {
+            if (row >= 0) return row;
+            row = board.nextSafeRow(col, 0);
+        }
+        return row >= 0 && row < start[col] ? row : -1;
+    }
+}
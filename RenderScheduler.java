@@ -0,0 +1,78 @@
+import javax.swing.Timer;
+
+/*
+ * Coalesces board updates so the EDT draws at most MAX_FPS frames a second. Producers
+ * (on any thread) only overwrite the latest snapshot and status text; a Swing timer
+ * renders whatever is newest when it fires. Snapshots that were replaced before being
+ * drawn are counted as dropped frames.
+ */
+public class RenderScheduler {
+    public static final int MAX_FPS = 60;
+
+    public interface Renderer {
+        // Called on the EDT; the array belongs to the scheduler and stays valid until the next frame
+        void render(int[] queens, String status);
+    }
+
+    private final Object lock = new Object();
+    private final Renderer renderer;
+    private final Timer timer;
+    private int[] pending = new int[0];
+    private String pendingStatus;
+    private boolean dirty;
+    private int[] frame = new int[0];
+    private long submitted;
+    private long dropped;
+    private long rendered;
+
+    public RenderScheduler(Renderer renderer) {
+        this.renderer = renderer;
+        this.timer = new Timer(1000 / MAX_FPS, e -> render());
+        this.timer.setCoalesce(true);
+    }
+
+    public void start() { timer.start(); }
+
+    // Stops the timer after drawing anything still pending
+    public void stop() {
+        timer.stop();
+        render();
+    }
+
+    public void reset() {
+        synchronized (lock) {
+            submitted = 0;
+            dropped = 0;
+            rendered = 0;
+            dirty = false;
+        }
+    }
+
+    public void submit(int[] queens, String status) {
+        synchronized (lock) {
+            if (pending.length != queens.length) pending = new int[queens.length];
+            System.arraycopy(queens, 0, pending, 0, queens.length);
+            pendingStatus = status;
+            if (dirty) dropped++;
+            dirty = true;
+            submitted++;
+        }
+    }
+
+    public long getSubmittedFrames() { synchronized (lock) { return submitted; } }
+    public long getDroppedFrames() { synchronized (lock) { return dropped; } }
+    public long getRenderedFrames() { synchronized (lock) { return rendered; } }
+
+    private void render() {
+        String status;
+        synchronized (lock) {
+            if (!dirty) return;
+            if (frame.length != pending.length) frame = new int[pending.length];
+            System.arraycopy(pending, 0, frame, 0, pending.length);
+            status = pendingStatus;
+            dirty = false;
+            rendered++;
+        }
+        renderer.render(frame, status);
+    }
+}
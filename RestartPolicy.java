@@ -0,0 +1,83 @@
+import java.util.Locale;
+
+/*
+ * Node budgets for successive runs of a randomized search. Run i (counting from 0) may
+ * expand cutoff(i) nodes before the search gives up and restarts with fresh random
+ * choices. Policies are immutable, so one instance can be shared by parallel workers
+ * and a recorded run can be replayed with the same budgets.
+ *
+ *   fixed      the same budget for every run
+ *   luby       unit times the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, ... which is within
+ *              a log factor of the best fixed cutoff without knowing the distribution
+ *   geometric  first, first * factor, first * factor^2, ...
+ */
+public abstract class RestartPolicy {
+    private static final long MAX_CUTOFF = Long.MAX_VALUE / 4;
+
+    // Nodes allowed for the given run, at least one
+    public abstract long cutoff(long run);
+
+    public static RestartPolicy fixed(long nodes) {
+        if (nodes < 1) throw new IllegalArgumentException("Cutoff must be positive: " + nodes);
+        return new RestartPolicy() {
+            @Override public long cutoff(long run) { return nodes; }
+            @Override public String toString() { return "fixed:" + nodes; }
+        };
+    }
+
+    public static RestartPolicy luby(long unit) {
+        if (unit < 1) throw new IllegalArgumentException("Luby unit must be positive: " + unit);
+        return new RestartPolicy() {
+            @Override public long cutoff(long run) { return saturate(unit, lubyTerm(run + 1)); }
+            @Override public String toString() { return "luby:" + unit; }
+        };
+    }
+
+    public static RestartPolicy geometric(long first, double factor) {
+        if (first < 1) throw new IllegalArgumentException("First cutoff must be positive: " + first);
+        if (!(factor >= 1)) throw new IllegalArgumentException("Growth factor must be at least 1: " + factor);
+        return new RestartPolicy() {
+            @Override
+            public long cutoff(long run) {
+                double nodes = first * Math.pow(factor, run);
+                return nodes >= MAX_CUTOFF ? MAX_CUTOFF : (long) nodes;
+            }
+            @Override public String toString() { return String.format(Locale.ROOT, "geometric:%d:%s", first, factor); }
+        };
+    }
+
+    // Parses fixed[:nodes], luby[:unit] or geometric[:first[:factor]]; missing values are
+    // scaled to the board (a fixed budget of the hybrid default, one board's worth of
+    // nodes as the Luby unit and first geometric cutoff, growth 1.5)
+    public static RestartPolicy parse(String spec, int n) {
+        String[] parts = spec.toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return fixed(parts.length > 1 ? Long.parseLong(parts[1]) : HybridLasVegas.defaultNodeLimit(n));
+                case "luby":
+                    return luby(parts.length > 1 ? Long.parseLong(parts[1]) : n);
+                case "geometric":
+                    return geometric(parts.length > 1 ? Long.parseLong(parts[1]) : n,
+                            parts.length > 2 ? Double.parseDouble(parts[2]) : 1.5);
+                default:
+                    throw new IllegalArgumentException("Unknown restart policy " + spec);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad restart policy " + spec);
+        }
+    }
+
+    // i-th term (from 1) of the Luby sequence
+    static long lubyTerm(long i) {
+        while (true) {
+            int k = 64 - Long.numberOfLeadingZeros(i);   // 2^(k-1) <= i < 2^k
+            if (i == (1L << k) - 1) return 1L << (k - 1);
+            i -= (1L << (k - 1)) - 1;
+        }
+    }
+
+    private static long saturate(long unit, long multiple) {
+        return multiple > MAX_CUTOFF / unit ? MAX_CUTOFF : unit * multiple;
+    }
+}
@@ -0,0 +1,218 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Every solution for a given N, kept on disk in one file per N and memory-mapped for
+ * reading. A solution is packed into a fixed number of bytes (each row in just enough
+ * bits, first column in the most significant bits), so the k-th solution sits at a known
+ * offset and is decoded straight from the mapping without copying the file onto the heap.
+ * Solutions are stored in lexicographic order, which makes solution 0 the one that
+ * backtracking finds first.
+ *
+ * A file is built the first time its N is asked for, by enumerating all solutions, and
+ * reused from then on. Files are written under a temporary name and moved into place, so
+ * an interrupted build never leaves a truncated store behind.
+ *
+ * File layout (big-endian): int magic, int version, int n, int bitsPerRow,
+ * int bytesPerSolution, int reserved, long count, then count packed solutions.
+ */
+public class SolutionStore {
+    // Keeps a packed solution inside a non-negative long (15 rows of 4 bits)
+    public static final int MAX_STORED_SIZE = 15;
+    public static final Path DEFAULT_DIRECTORY = Paths.get("solutions");
+
+    private static final int MAGIC = 0x4E515353; // "NQSS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    // Read-only view of the stored solutions for one N
+    public static class Solutions {
+        private final int n;
+        private final int bitsPerRow;
+        private final int width;
+        private final long count;
+        private final MappedByteBuffer data;
+
+        private Solutions(int n, int bitsPerRow, int width, long count, MappedByteBuffer data) {
+            this.n = n;
+            this.bitsPerRow = bitsPerRow;
+            this.width = width;
+            this.count = count;
+            this.data = data;
+        }
+
+        public int getBoardSize() { return n; }
+        public long getCount() { return count; }
+
+        public int[] get(long k) {
+            int[] queens = new int[n];
+            get(k, queens);
+            return queens;
+        }
+
+        // Decodes solution k (queens[col] = row) into the caller's array
+        public void get(long k, int[] queens) {
+            if (k < 0 || k >= count) throw new IndexOutOfBoundsException("Solution " + k + " of " + count);
+            int offset = HEADER_BYTES + (int) k * width;
+            long packed = 0;
+            for (int i = 0; i < width; i++) packed = (packed << 8) | (data.get(offset + i) & 0xFF);
+            unpack(packed, n, bitsPerRow, queens);
+        }
+
+        // A uniformly random solution, or null if N has none
+        public int[] random(SplittableRandom random) {
+            return count == 0 ? null : get(random.nextLong(count));
+        }
+    }
+
+    private final Path directory;
+    private final QueensCounter counter;
+    private final Map<Integer, Solutions> open = new HashMap<>();
+
+    public SolutionStore() {
+        this(DEFAULT_DIRECTORY, new QueensCounter());
+    }
+
+    public SolutionStore(Path directory, QueensCounter counter) {
+        this.directory = directory;
+        this.counter = counter;
+    }
+
+    public Path fileFor(int n) {
+        return directory.resolve("queens-" + n + ".bin");
+    }
+
+    public synchronized boolean isStored(int n) {
+        return open.containsKey(n) || Files.exists(fileFor(n));
+    }
+
+    // Maps the store for N, enumerating and writing it first if there is no valid file yet
+    public synchronized Solutions open(int n) throws IOException {
+        if (n < 1 || n > MAX_STORED_SIZE) {
+            throw new IllegalArgumentException("Solution store supports N from 1 to " + MAX_STORED_SIZE + ": " + n);
+        }
+        Solutions solutions = open.get(n);
+        if (solutions != null) return solutions;
+
+        Path file = fileFor(n);
+        solutions = Files.exists(file) ? map(file, n) : null;
+        if (solutions == null) {
+            build(n, file);
+            solutions = map(file, n);
+            if (solutions == null) throw new IOException("Could not read back " + file);
+        }
+        open.put(n, solutions);
+        return solutions;
+    }
+
+    private void build(int n, Path file) throws IOException {
+        long[] packed = enumerate(n);
+        int bitsPerRow = bitsPerRow(n);
+        int width = bytesPerSolution(n, bitsPerRow);
+
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "queens-" + n + "-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        HEADER_BYTES + (long) packed.length * width);
+                out.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(bitsPerRow)
+                        .putInt(width).putInt(0).putLong(packed.length);
+                for (long solution : packed) {
+                    for (int shift = (width - 1) * 8; shift >= 0; shift -= 8) out.put((byte) (solution >>> shift));
+                }
+                out.force();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // One worker's share of the packed solutions
+    private static class Chunk {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+
+    // All solutions packed and sorted; each worker thread fills its own chunk
+    private long[] enumerate(int n) {
+        int bitsPerRow = bitsPerRow(n);
+        Map<Thread, Chunk> chunks = new ConcurrentHashMap<>();
+        counter.enumerate(n, queens ->
+                chunks.computeIfAbsent(Thread.currentThread(), t -> new Chunk()).add(pack(queens, bitsPerRow)));
+
+        int total = 0;
+        for (Chunk chunk : chunks.values()) total += chunk.size;
+        long[] packed = new long[total];
+        int at = 0;
+        for (Chunk chunk : chunks.values()) {
+            System.arraycopy(chunk.values, 0, packed, at, chunk.size);
+            at += chunk.size;
+        }
+        Arrays.sort(packed);
+        return packed;
+    }
+
+    // Maps an existing file, or returns null if its header does not match this format and N
+    private static Solutions map(Path file, int n) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) return null;
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            ByteBuffer header = data.duplicate();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != n) return null;
+            int bitsPerRow = header.getInt();
+            int width = header.getInt();
+            header.getInt();
+            long count = header.getLong();
+            if (bitsPerRow != bitsPerRow(n) || width != bytesPerSolution(n, bitsPerRow)
+                    || length != HEADER_BYTES + count * width) {
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            return new Solutions(n, bitsPerRow, width, count, data);
+        }
+    }
+
+    static int bitsPerRow(int n) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(n - 1));
+    }
+
+    private static int bytesPerSolution(int n, int bitsPerRow) {
+        return (n * bitsPerRow + 7) / 8;
+    }
+
+    // First column ends up in the most significant bits, so numeric order is lexicographic order
+    static long pack(int[] queens, int bitsPerRow) {
+        long packed = 0;
+        for (int row : queens) packed = (packed << bitsPerRow) | row;
+        return packed;
+    }
+
+    static void unpack(long packed, int n, int bitsPerRow, int[] queens) {
+        long mask = (1L << bitsPerRow) - 1;
+        for (int col = n - 1; col >= 0; col--) {
+            queens[col] = (int) (packed & mask);
+            packed >>>= bitsPerRow;
+        }
+    }
+}
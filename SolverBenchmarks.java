@@ -0,0 +1,288 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/*
+ * Micro-benchmarks for the solver hot paths: warmup and measurement iterations per
+ * parameter, throughput in ns/op, and bytes allocated per op taken from the thread
+ * allocation counter (what a GC profiler reports as alloc.rate.norm). Results are
+ * printed as CSV; --baseline compares against a saved run and flags regressions.
+ *
+ *   java SolverBenchmarks [--filter name] [--quick] [--baseline baseline.csv]
+ *                         [--max-slowdown PCT] [--fail-on-regression]
+ *
+ * ns/op only compares between runs on the same machine and JDK, so a baseline should
+ * be saved locally (java SolverBenchmarks > baseline.csv) before a change. A case is
+ * flagged when it is more than --max-slowdown percent slower than the baseline and the
+ * gap is larger than the error of both runs; the exit status is only 1 for flagged
+ * cases with --fail-on-regression.
+ */
+public class SolverBenchmarks {
+    private static final double DEFAULT_MAX_SLOWDOWN = 25;
+
+    private interface Operation {
+        long run();
+    }
+
+    private interface Benchmark {
+        // Builds the state for one parameter value and returns the measured operation
+        Operation setUp(int param);
+    }
+
+    private static class Case {
+        final String name;
+        final int[] params;
+        final Benchmark benchmark;
+
+        Case(String name, int[] params, Benchmark benchmark) {
+            this.name = name;
+            this.params = params;
+            this.benchmark = benchmark;
+        }
+    }
+
+    private static volatile long sink;
+
+    private int warmupIterations = 5;
+    private int measurementIterations = 5;
+    private long iterationNanos = 200_000_000L;
+    private double maxSlowdown = DEFAULT_MAX_SLOWDOWN;
+    private boolean failOnRegression;
+
+    public static void main(String[] args) throws IOException {
+        SolverBenchmarks benchmarks = new SolverBenchmarks();
+        String filter = null;
+        Path baseline = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter": filter = args[++i]; break;
+                case "--baseline": baseline = Paths.get(args[++i]); break;
+                case "--max-slowdown": benchmarks.maxSlowdown = Double.parseDouble(args[++i]); break;
+                case "--fail-on-regression": benchmarks.failOnRegression = true; break;
+                case "--quick":
+                    benchmarks.warmupIterations = 2;
+                    benchmarks.measurementIterations = 3;
+                    benchmarks.iterationNanos = 50_000_000L;
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+        Map<String, double[]> previous = baseline == null ? new HashMap<>() : readBaseline(baseline);
+        benchmarks.runAll(filter, previous);
+    }
+
+    private List<Case> cases() {
+        List<Case> cases = new ArrayList<>();
+        cases.add(new Case("ChessModel.isSafe", new int[] {8, 16, 32, 64}, n -> {
+            ChessModel model = new ChessModel(n);
+            int[] solution = randomPartialSolution(n);
+            return () -> {
+                long safe = 0;
+                for (int row = 0; row < n; row++) if (model.isSafe(row, n - 1, solution)) safe++;
+                return safe;
+            };
+        }));
+        cases.add(new Case("ChessModel.getSafeRows", new int[] {8, 16, 32, 64}, n -> {
+            ChessModel model = new ChessModel(n);
+            int[] solution = randomPartialSolution(n);
+            return () -> model.getSafeRows(n - 1, solution).size();
+        }));
+        cases.add(new Case("QueensBoard.countSafeRows", new int[] {8, 16, 32, 64}, n -> {
+            QueensBoard board = new QueensBoard(n);
+            int[] solution = randomPartialSolution(n);
+            for (int col = 0; col < n - 1; col++) if (solution[col] >= 0) board.place(solution[col], col);
+            return () -> board.countSafeRows(n - 1);
+        }));
+        cases.add(new Case("Backtracking.solve", new int[] {8, 16, 24}, n -> {
+            BacktrackingSolver solver = new BacktrackingSolver();
+            QueensBoard board = new QueensBoard(n);
+            return () -> {
+                solver.solve(board);
+                return solver.getNodes();
+            };
+        }));
+        cases.add(new Case("LasVegas.solve", new int[] {8, 16, 32, 64}, n -> {
+            SplittableRandom random = new SplittableRandom(42);
+            QueensBoard board = new QueensBoard(n);
+            return () -> {
+                long attempts = 1;
+                while (!PortfolioLasVegas.attempt(board, random)) attempts++;
+                return attempts;
+            };
+        }));
+        // The search alone, and with the step trail the visualizer records (4 bytes per step)
+        for (boolean recordTrail : new boolean[] {false, true}) {
+            cases.add(new Case(recordTrail ? "SubsetSum.findAllSubsetsWithTrail" : "SubsetSum.findAllSubsets",
+                    new int[] {10, 14, 18}, size -> {
+                Random random = new Random(42);
+                int[] numbers = new int[size];
+                int total = 0;
+                for (int i = 0; i < size; i++) {
+                    numbers[i] = random.nextInt(20) + 1;
+                    total += numbers[i];
+                }
+                int target = total / 2;
+                return () -> {
+                    SubsetSumSearch search = new SubsetSumSearch(numbers, target, recordTrail);
+                    search.solve();
+                    return search.getSolutionCount();
+                };
+            }));
+        }
+        cases.add(new Case("SubsetSum.branchAndBound", new int[] {10, 14, 18}, size -> {
+            Random random = new Random(42);
+            int[] numbers = new int[size];
+            int total = 0;
+            for (int i = 0; i < size; i++) {
+                numbers[i] = random.nextInt(20) + 1;
+                total += numbers[i];
+            }
+            int target = total / 2;
+            return () -> new SubsetSumBranchAndBound(numbers, target).solve(Integer.MAX_VALUE).getSolutionCount();
+        }));
+        cases.add(new Case("SubsetSum.parallelCount", new int[] {18, 22}, size -> {
+            Random random = new Random(42);
+            int[] numbers = new int[size];
+            int total = 0;
+            for (int i = 0; i < size; i++) {
+                numbers[i] = random.nextInt(20) + 1;
+                total += numbers[i];
+            }
+            int target = total / 2;
+            SubsetSumEnumerator enumerator = new SubsetSumEnumerator();
+            return () -> enumerator.count(numbers, target);
+        }));
+        cases.add(new Case("SubsetSum.meetInMiddle", new int[] {20, 30, 40}, size -> {
+            Random random = new Random(42);
+            int[] numbers = new int[size];
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                numbers[i] = random.nextInt(1_000_000) + 1;
+                total += numbers[i];
+            }
+            long target = total / 2;
+            return () -> new SubsetSumMeetInMiddle(numbers, target).count();
+        }));
+        cases.add(new Case("SubsetSum.bitsetDP", new int[] {1000, 4000}, size -> {
+            Random random = new Random(42);
+            int[] numbers = new int[size];
+            int total = 0;
+            for (int i = 0; i < size; i++) {
+                numbers[i] = random.nextInt(1000) + 1;
+                total += numbers[i];
+            }
+            int target = total / 2;
+            return () -> new SubsetSumDP(numbers, target).witnessIndices().length;
+        }));
+        return cases;
+    }
+
+    // Queens in all but the last column, placed without regard to attacks (a scan touches every column)
+    private static int[] randomPartialSolution(int n) {
+        Random random = new Random(n);
+        int[] solution = new int[n];
+        for (int col = 0; col < n - 1; col++) solution[col] = random.nextInt(n);
+        solution[n - 1] = -1;
+        return solution;
+    }
+
+    private void runAll(String filter, Map<String, double[]> baseline) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        boolean regressed = false;
+
+        System.out.println("benchmark,param,ns_per_op,ns_per_op_error,bytes_per_op,alloc_mb_per_s,baseline_ratio");
+        for (Case c : cases()) {
+            if (filter != null && !c.name.contains(filter)) continue;
+            for (int param : c.params) {
+                Operation op = c.benchmark.setUp(param);
+                for (int i = 0; i < warmupIterations; i++) iterate(op);
+
+                double[] nsPerOp = new double[measurementIterations];
+                long totalOps = 0;
+                long totalNanos = 0;
+                long bytesBefore = threads.getThreadAllocatedBytes(thread);
+                for (int i = 0; i < measurementIterations; i++) {
+                    long start = System.nanoTime();
+                    long ops = iterate(op);
+                    long elapsed = System.nanoTime() - start;
+                    nsPerOp[i] = (double) elapsed / ops;
+                    totalOps += ops;
+                    totalNanos += elapsed;
+                }
+                long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+
+                double mean = (double) totalNanos / totalOps;
+                double bytesPerOp = (double) bytes / totalOps;
+                double allocRate = bytes / 1e6 / (totalNanos / 1e9);
+                double error = stdDev(nsPerOp);
+                // Baseline ns/op and its error
+                double[] previous = baseline.get(c.name + "," + param);
+                String ratio = previous == null ? "" : String.format(Locale.ROOT, "%.2f", mean / previous[0]);
+                if (previous != null && mean > previous[0] * (1 + maxSlowdown / 100)
+                        && mean - previous[0] > error + previous[1]) {
+                    ratio += " REGRESSION";
+                    regressed = true;
+                }
+                System.out.printf(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f,%s%n",
+                        c.name, param, mean, error, bytesPerOp, allocRate, ratio);
+            }
+        }
+        System.out.println("sink," + sink);
+        if (regressed && failOnRegression) System.exit(1);
+    }
+
+    // Runs batches of the operation until the iteration time is used up; batches grow so
+    // that reading the clock stays negligible next to very short operations
+    private long iterate(Operation op) {
+        long start = System.nanoTime();
+        long deadline = start + iterationNanos;
+        long ops = 0;
+        long result = 0;
+        int batch = 1;
+        long now = start;
+        do {
+            long batchStart = now;
+            for (int i = 0; i < batch; i++) result += op.run();
+            ops += batch;
+            now = System.nanoTime();
+            if (batch < (1 << 20) && now - batchStart < 1_000_000L) batch <<= 1;
+        } while (now < deadline);
+        sink += result;
+        return ops;
+    }
+
+    private static double stdDev(double[] values) {
+        double mean = 0;
+        for (double v : values) mean += v;
+        mean /= values.length;
+        double sum = 0;
+        for (double v : values) sum += (v - mean) * (v - mean);
+        return values.length > 1 ? Math.sqrt(sum / (values.length - 1)) : 0;
+    }
+
+    // Reads ns_per_op and its error by "benchmark,param" from a previous run's CSV; lines
+    // starting with # are comments
+    private static Map<String, double[]> readBaseline(Path file) throws IOException {
+        Map<String, double[]> baseline = new HashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            String[] fields = line.split(",");
+            if (line.startsWith("#") || fields.length < 4 || fields[0].equals("benchmark") || fields[0].equals("sink")) continue;
+            baseline.put(fields[0] + "," + fields[1],
+                    new double[] {Double.parseDouble(fields[2]), Double.parseDouble(fields[3])});
+        }
+        return baseline;
+    }
+}
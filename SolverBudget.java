@@ -0,0 +1,101 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Limits for one solver run: a deadline, a node limit and a cancel flag. Searches call
+ * spend() every few thousand nodes with the nodes used since their last call and stop
+ * as soon as it returns true, keeping what they have found so far. What a node is
+ * depends on the solver (a queen placement, a search node, a word of a DP bitset);
+ * the limit only has to be comparable between runs of the same solver.
+ *
+ * One budget can be shared by the threads of a parallel search: the node total is an
+ * atomic and the first limit that is hit is remembered as the reason for stopping.
+ * An interrupted thread counts as cancelled, as it did before budgets existed.
+ *
+ * Where a node's cost grows with the input (a placement on an N-Queens board scans
+ * N / 64 words), checkInterval() shortens the gap between checks, so a stop is seen
+ * within milliseconds even for boards of millions of columns.
+ */
+public class SolverBudget {
+    public enum Stop {
+        CANCELLED("cancelled"), TIME_LIMIT("time limit reached"), NODE_LIMIT("node limit reached");
+
+        private final String description;
+
+        Stop(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String toString() { return description; }
+    }
+
+    // Work, in word operations, between two checks; and the most nodes between two checks
+    private static final long WORK_PER_CHECK = 1L << 22;
+    private static final int MAX_CHECK_INTERVAL = 1 << 16;
+
+    private final long startNanos;
+    private final long timeLimitNanos;
+    private final long nodeLimit;
+    private final AtomicLong spent = new AtomicLong();
+    private volatile Stop stop;
+
+    // No limits; the run still stops when cancelled or interrupted
+    public static SolverBudget unlimited() {
+        return new SolverBudget(0, 0);
+    }
+
+    // Either limit may be 0 for none; the clock starts now
+    public SolverBudget(long timeLimitMillis, long nodeLimit) {
+        if (timeLimitMillis < 0 || nodeLimit < 0) {
+            throw new IllegalArgumentException("Limits must not be negative: " + timeLimitMillis + " ms, " + nodeLimit + " nodes");
+        }
+        this.startNanos = System.nanoTime();
+        this.timeLimitNanos = timeLimitMillis == 0 ? Long.MAX_VALUE : timeLimitMillis * 1_000_000;
+        this.nodeLimit = nodeLimit == 0 ? Long.MAX_VALUE : nodeLimit;
+    }
+
+    // Nodes between checks, a power of two, when a node costs about nodeCost word operations
+    public static int checkInterval(long nodeCost) {
+        long interval = Long.highestOneBit(Math.max(1, WORK_PER_CHECK / Math.max(1, nodeCost)));
+        return (int) Math.min(MAX_CHECK_INTERVAL, interval);
+    }
+
+    public long getTimeLimitMillis() { return timeLimitNanos == Long.MAX_VALUE ? 0 : timeLimitNanos / 1_000_000; }
+    public long getNodeLimit() { return nodeLimit == Long.MAX_VALUE ? 0 : nodeLimit; }
+
+    // Asks the run to stop at its next check; safe to call from any thread
+    public void cancel() {
+        stop(Stop.CANCELLED);
+    }
+
+    // Adds nodes to the total and returns true once the run should stop
+    public boolean spend(long nodes) {
+        if (stop != null) return true;
+        long total = nodes == 0 ? spent.get() : spent.addAndGet(nodes);
+        if (Thread.currentThread().isInterrupted()) {
+            stop(Stop.CANCELLED);
+        } else if (total >= nodeLimit) {
+            stop(Stop.NODE_LIMIT);
+        } else if (System.nanoTime() - startNanos >= timeLimitNanos) {
+            stop(Stop.TIME_LIMIT);
+        }
+        return stop != null;
+    }
+
+    // Same checks without adding nodes, for loops whose nodes are counted elsewhere
+    public boolean isExhausted() {
+        return spend(0);
+    }
+
+    public boolean isStopped() { return stop != null; }
+
+    // Why the run stopped early, or null if it has not
+    public Stop getStop() { return stop; }
+
+    // Nodes reported so far
+    public long getSpent() { return spent.get(); }
+
+    private synchronized void stop(Stop reason) {
+        if (stop == null) stop = reason;
+    }
+}
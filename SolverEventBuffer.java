@@ -0,0 +1,73 @@
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Bounded single-producer/single-consumer ring of solver events. Each event is one long
+ * (type, column, row), so publishing never allocates. When the ring is full the solver
+ * waits for the consumer; that waiting time is tracked separately so the solver can
+ * report its real running time. A consumer that no longer cares (skip to end) detaches
+ * the buffer, after which publishing is a no-op and the solver runs unthrottled.
+ */
+public class SolverEventBuffer {
+    public static final int PLACE = 1;
+    public static final int REMOVE = 2;
+    public static final int RESTART = 3;
+    public static final long EMPTY = -1L;
+
+    private static final long WAIT_NANOS = 100_000L;
+
+    private final long[] ring;
+    private final int mask;
+    private volatile long head;   // next slot to read, written by the consumer
+    private volatile long tail;   // next slot to write, written by the producer
+    private volatile boolean closed;
+    private volatile boolean detached;
+    private volatile long stalledNanos;
+
+    public SolverEventBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new long[size];
+        this.mask = size - 1;
+    }
+
+    public void publish(int type, int col, int row) {
+        if (detached) return;
+        long t = tail;
+        if (t - head == ring.length) {
+            long start = System.nanoTime();
+            while (t - head == ring.length) {
+                if (detached || Thread.currentThread().isInterrupted()) {
+                    stalledNanos += System.nanoTime() - start;
+                    return;
+                }
+                LockSupport.parkNanos(WAIT_NANOS);
+            }
+            stalledNanos += System.nanoTime() - start;
+        }
+        ring[(int) t & mask] = ((long) type << 56) | ((long) col << 28) | row;
+        tail = t + 1;
+    }
+
+    // Called by the producer once the solver has finished
+    public void close() { closed = true; }
+
+    // Returns the next event, or EMPTY if none is available yet
+    public long poll() {
+        long h = head;
+        if (h == tail) return EMPTY;
+        long event = ring[(int) h & mask];
+        head = h + 1;
+        return event;
+    }
+
+    public void detach() { detached = true; }
+    public boolean isDetached() { return detached; }
+    public boolean isClosed() { return closed; }
+    public boolean isDrained() { return closed && head == tail; }
+
+    // Time the producer spent waiting for the consumer to make room
+    public long getStalledNanos() { return stalledNanos; }
+
+    public static int type(long event) { return (int) (event >>> 56); }
+    public static int col(long event) { return (int) (event >>> 28) & 0xFFFFFFF; }
+    public static int row(long event) { return (int) event & 0xFFFFFFF; }
+}
@@ -0,0 +1,102 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * A solver run on the shared solver executor. The executor has one daemon thread per
+ * core and a short queue; a job that does not fit is rejected with a
+ * RejectedExecutionException instead of starting yet another thread.
+ *
+ * Stopping is cooperative: cancel() marks the job's budget, the search sees it at its
+ * next check and returns what it has so far, so the future still completes with a
+ * (partial) result. Parallel solvers started from a job (fork/join counting, portfolio
+ * workers) are given the same budget and stop with it.
+ *
+ * Those parallel parts run on forkJoinPool(), shared by all jobs: one daemon worker
+ * per core and never more, also while tasks wait on each other, instead of the common
+ * pool or threads of their own.
+ */
+public class SolverJob<T> {
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int QUEUE_CAPACITY = 16;
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+    private static final ForkJoinPool FORK_JOIN_POOL = createForkJoinPool();
+
+    private final SolverBudget budget;
+    private final FutureTask<T> task;
+
+    private SolverJob(SolverBudget budget, Callable<T> work) {
+        this.budget = budget;
+        this.task = new FutureTask<>(() -> {
+            try {
+                return work.call();
+            } catch (RuntimeException | Error e) {
+                // Report it like an uncaught exception on a plain thread; get() rethrows it too
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                throw e;
+            }
+        });
+    }
+
+    public static <T> SolverJob<T> submit(SolverBudget budget, Callable<T> work) {
+        SolverJob<T> job = new SolverJob<>(budget, work);
+        EXECUTOR.execute(job.task);
+        return job;
+    }
+
+    public static SolverJob<Void> submit(SolverBudget budget, Runnable work) {
+        return submit(budget, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Pool for the parallel parts of solver runs
+    public static ForkJoinPool forkJoinPool() {
+        return FORK_JOIN_POOL;
+    }
+
+    public SolverBudget getBudget() { return budget; }
+    public Future<T> getFuture() { return task; }
+    public boolean isDone() { return task.isDone(); }
+
+    // Stops the search at its next budget check; the job then finishes with a partial result
+    public void cancel() {
+        budget.cancel();
+    }
+
+    public T get() throws InterruptedException, ExecutionException {
+        return task.get();
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), work -> {
+                    Thread thread = new Thread(work, "solver-job-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ForkJoinPool createForkJoinPool() {
+        AtomicInteger threads = new AtomicInteger();
+        // A blocked join waits instead of adding a worker past THREADS
+        return new ForkJoinPool(THREADS, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("solver-fork-join-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false, THREADS, THREADS, 1, pool -> true, 30, TimeUnit.SECONDS);
+    }
+}
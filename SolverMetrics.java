@@ -0,0 +1,169 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/*
+ * Cumulative counters for one solver across all of its runs. Solvers keep their own
+ * plain counters while searching and add them here once per solve, and every counter
+ * is a LongAdder, so concurrent workers do not contend on a shared cache line. Las
+ * Vegas style solvers also record how many attempts each success took, bucketed by
+ * powers of two.
+ *
+ * Each solver's metrics are registered as a standard MBean when first used, so a JMX
+ * console can watch them live; the headless runner dumps them with --metrics.
+ */
+public class SolverMetrics implements SolverMetricsMBean {
+    public static final String DOMAIN = "nqueens";
+    private static final int HISTOGRAM_BUCKETS = 64;
+    private static final Map<String, SolverMetrics> solvers = new ConcurrentHashMap<>();
+
+    private final String solver;
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder safetyChecks = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder restarts = new LongAdder();
+    private final LongAdder placements = new LongAdder();
+    private final LongAdder solverNanos = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder successAttempts = new LongAdder();
+    private final LongAdder[] attemptsHistogram = new LongAdder[HISTOGRAM_BUCKETS];
+
+    private SolverMetrics(String solver) {
+        this.solver = solver;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) attemptsHistogram[i] = new LongAdder();
+    }
+
+    // The metrics of a solver, created and registered with JMX on first use
+    public static SolverMetrics of(String solver) {
+        return solvers.computeIfAbsent(solver, name -> {
+            SolverMetrics metrics = new SolverMetrics(name);
+            metrics.register();
+            return metrics;
+        });
+    }
+
+    // Every solver that has recorded anything, by name
+    public static List<SolverMetrics> all() {
+        return new ArrayList<>(new TreeMap<>(solvers).values());
+    }
+
+    private void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=SolverMetrics,solver=" + ObjectName.quote(solver));
+            if (!server.isRegistered(name)) server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register metrics for " + solver, e);
+        }
+    }
+
+    // Snapshot of a board's counters and the clock, taken when a solve starts
+    public class Sample {
+        private final QueensBoard board;
+        private final long startNanos = System.nanoTime();
+        private final long startChecks;
+        private final long startPlacements;
+        private final long startRemovals;
+
+        private Sample(QueensBoard board) {
+            this.board = board;
+            this.startChecks = board == null ? 0 : board.getSafetyChecks();
+            this.startPlacements = board == null ? 0 : board.getPlacements();
+            this.startRemovals = board == null ? 0 : board.getRemovals();
+        }
+
+        // Records a solve on the sampled board: safety checks, placements and backtracks come from it
+        public void finish(long nodes, long restarts) {
+            record(nodes, board.getSafetyChecks() - startChecks, board.getRemovals() - startRemovals,
+                    restarts, board.getPlacements() - startPlacements, System.nanoTime() - startNanos);
+        }
+
+        // Records a solve that does not run on a QueensBoard
+        public void finish(long nodes, long restarts, long placements) {
+            record(nodes, 0, 0, restarts, placements, System.nanoTime() - startNanos);
+        }
+    }
+
+    public Sample start(QueensBoard board) {
+        return new Sample(board);
+    }
+
+    public Sample start() {
+        return new Sample(null);
+    }
+
+    public void record(long nodes, long safetyChecks, long backtracks, long restarts, long placements, long nanos) {
+        solves.increment();
+        this.nodes.add(nodes);
+        this.safetyChecks.add(safetyChecks);
+        this.backtracks.add(backtracks);
+        this.restarts.add(restarts);
+        this.placements.add(placements);
+        solverNanos.add(nanos);
+    }
+
+    // A success that needed the given number of attempts (at least one)
+    public void recordSuccess(long attempts) {
+        successes.increment();
+        successAttempts.add(attempts);
+        attemptsHistogram[63 - Long.numberOfLeadingZeros(Math.max(1, attempts))].increment();
+    }
+
+    @Override public String getSolver() { return solver; }
+    @Override public long getSolves() { return solves.sum(); }
+    @Override public long getNodesExpanded() { return nodes.sum(); }
+    @Override public long getSafetyChecks() { return safetyChecks.sum(); }
+    @Override public long getBacktracks() { return backtracks.sum(); }
+    @Override public long getRestarts() { return restarts.sum(); }
+    @Override public long getPlacements() { return placements.sum(); }
+    @Override public long getSolverMillis() { return solverNanos.sum() / 1_000_000; }
+
+    // Placements per second of solver time; workers running in parallel each add their own time
+    @Override
+    public double getPlacementsPerSecond() {
+        long nanos = solverNanos.sum();
+        return nanos == 0 ? 0 : placements.sum() * 1e9 / nanos;
+    }
+
+    @Override public long getSuccesses() { return successes.sum(); }
+
+    @Override
+    public double getMeanAttemptsToSuccess() {
+        long count = successes.sum();
+        return count == 0 ? 0 : (double) successAttempts.sum() / count;
+    }
+
+    @Override
+    public long[] getAttemptsHistogram() {
+        long[] histogram = new long[HISTOGRAM_BUCKETS];
+        int used = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = attemptsHistogram[i].sum();
+            if (histogram[i] != 0) used = i + 1;
+        }
+        return Arrays.copyOf(histogram, used);
+    }
+
+    @Override
+    public void reset() {
+        solves.reset();
+        nodes.reset();
+        safetyChecks.reset();
+        backtracks.reset();
+        restarts.reset();
+        placements.reset();
+        solverNanos.reset();
+        successes.reset();
+        successAttempts.reset();
+        for (LongAdder bucket : attemptsHistogram) bucket.reset();
+    }
+}
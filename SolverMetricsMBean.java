@@ -0,0 +1,24 @@
+/*
+ * Management interface of SolverMetrics, one instance per solver, registered as
+ * nqueens:type=SolverMetrics,solver=<name> on the platform MBean server.
+ */
+public interface SolverMetricsMBean {
+    String getSolver();
+
+    // Solver runs; each worker of a portfolio run counts as one
+    long getSolves();
+    long getNodesExpanded();
+    long getSafetyChecks();
+    long getBacktracks();
+    long getRestarts();
+    long getPlacements();
+    long getSolverMillis();
+    double getPlacementsPerSecond();
+
+    long getSuccesses();
+    double getMeanAttemptsToSuccess();
+    // Entry i counts successes that took between 2^i and 2^(i+1) - 1 attempts
+    long[] getAttemptsHistogram();
+
+    void reset();
+}
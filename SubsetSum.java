@@ -2,14 +2,45 @@
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
 
 public class SubsetSum extends JFrame {
-    private static final int MAX_NUMBERS = 10;
+    private static final int RANDOM_NUMBERS = 10;
+    private static final int NUMBERS_PER_ROW = 16;
+    // The step history grows with the 2^n search tree, so larger inputs need meet in the middle
+    private static final int MAX_STEPPED_NUMBERS = 20;
+    private static final int MAX_LISTED_SOLUTIONS = 1000;
+    private static final int PROGRESS_INTERVAL_MS = 100;
+    // Longer inputs are solved in full but only this many numbers get a label
+    private static final int MAX_SHOWN_NUMBERS = 64;
+    private static final String BACKTRACKING = "Backtracking";
+    private static final String MEET_IN_MIDDLE = "Meet in the Middle";
+    private static final String DYNAMIC_PROGRAMMING = "Dynamic Programming";
+    private static final String BRANCH_AND_BOUND = "Branch and Bound";
+    private static final String PARALLEL = "Parallel Enumeration";
+    // Budgets for each run; 0 means no limit
+    private static final String[] TIME_LIMIT_LABELS = {"No time limit", "1 s", "10 s", "1 min"};
+    private static final long[] TIME_LIMITS_MS = {0, 1_000, 10_000, 60_000};
+    private static final String[] NODE_LIMIT_LABELS = {"No node limit", "1M nodes", "100M nodes", "10G nodes"};
+    private static final long[] NODE_LIMITS = {0, 1_000_000L, 100_000_000L, 10_000_000_000L};
     private JPanel numbersPanel;
     private JLabel statusLabel;
-    private JButton solveBtn, resetBtn, nextStepBtn, prevStepBtn;
+    private JButton solveBtn, resetBtn, nextStepBtn, prevStepBtn, stopBtn;
+    private JComboBox<String> engineBox, timeLimitBox, nodeLimitBox;
+    private JCheckBox countBox;
+    private JList<String> solutionList;
+    private SubsetSumResultModel resultModel;
+    private JTextField sizeFilterField, includeFilterField, jumpField;
+    private JButton filterBtn, jumpBtn;
+    private JLabel solutionsLabel;
+    private Timer resultsTimer;
+    private Timer progressTimer;
+    private SolverJob<?> job;
     private JTextField targetField, arrayField;
     private JTextArea resultArea;
     private JProgressBar progressBar;
@@ -19,30 +50,13 @@ public class SubsetSum extends JFrame {
     private int targetSum;
     private int backtrackSteps = 0;
     private Timer animationTimer;
-    private List<List<Integer>> allSolutions;
+    private long solutionCount;
 
-    // Step-by-step state
-    private List<BacktrackState> stateHistory = new ArrayList<>();
+    // Step-by-step state, rebuilt from the search's trail on demand
+    private SubsetSumTrail trail;
     private int currentStateIndex = -1;
     private boolean isSolving = false;
 
-    class BacktrackState {
-        int index;
-        int currentSum;
-        List<Integer> currentSolution;
-        List<Integer> indexPath;
-        String description;
-
-        public BacktrackState(int index, int currentSum, List<Integer> currentSolution, 
-                            List<Integer> indexPath, String description) {
-            this.index = index;
-            this.currentSum = currentSum;
-            this.currentSolution = new ArrayList<>(currentSolution);
-            this.indexPath = new ArrayList<>(indexPath);
-            this.description = description;
-        }
-    }
-
     public SubsetSum() {
         setTitle("Subset Sum Visualizer");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -56,8 +70,7 @@ public class SubsetSum extends JFrame {
     }
 
     private void initializeComponents() {
-        numbersPanel = new JPanel(new GridLayout(1, MAX_NUMBERS, 10, 10));
-        numbersPanel.setPreferredSize(new Dimension(800, 80));
+        numbersPanel = new JPanel(new GridLayout(1, RANDOM_NUMBERS, 10, 10));
         numbersPanel.setBorder(BorderFactory.createTitledBorder("Number Array"));
 
         Font font = new Font("Arial", Font.PLAIN, 16);
@@ -69,10 +82,23 @@ public class SubsetSum extends JFrame {
         resetBtn = new JButton("Add Array");
         nextStepBtn = new JButton("Next Step");
         prevStepBtn = new JButton("Previous Step");
+        stopBtn = new JButton("Stop");
         solveBtn.setFont(font);
         resetBtn.setFont(font);
         nextStepBtn.setFont(font);
         prevStepBtn.setFont(font);
+        stopBtn.setFont(font);
+        stopBtn.setEnabled(false);
+
+        engineBox = new JComboBox<>(new String[] {BACKTRACKING, BRANCH_AND_BOUND, PARALLEL, MEET_IN_MIDDLE, DYNAMIC_PROGRAMMING});
+        engineBox.setFont(font);
+        countBox = new JCheckBox("Count Subsets", true);
+        countBox.setFont(font);
+        countBox.setToolTipText("Dynamic Programming: also count the subsets, O(n * target)");
+        timeLimitBox = new JComboBox<>(TIME_LIMIT_LABELS);
+        timeLimitBox.setFont(font);
+        nodeLimitBox = new JComboBox<>(NODE_LIMIT_LABELS);
+        nodeLimitBox.setFont(font);
 
         targetField = new JTextField("15", 5);
         arrayField = new JTextField("2,3,5,7,11", 30);
@@ -84,6 +110,24 @@ public class SubsetSum extends JFrame {
         resultArea.setEditable(false);
         resultArea.setBorder(BorderFactory.createTitledBorder("Results"));
 
+        solutionList = new JList<>();
+        solutionList.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        solutionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        solutionList.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) showSelectedSolution();
+        });
+        sizeFilterField = new JTextField(3);
+        includeFilterField = new JTextField(3);
+        jumpField = new JTextField(7);
+        filterBtn = new JButton("Filter");
+        jumpBtn = new JButton("Go");
+        solutionsLabel = new JLabel("0 shown of 0");
+        filterBtn.addActionListener(e -> applyFilter());
+        jumpBtn.addActionListener(e -> jumpToSolution());
+        jumpField.addActionListener(e -> jumpToSolution());
+        // Picks up solutions while the solver is still adding them
+        resultsTimer = new Timer(200, e -> refreshResults());
+
         progressBar = new JProgressBar();
         progressBar.setStringPainted(true);
         progressBar.setVisible(false);
@@ -100,6 +144,9 @@ public class SubsetSum extends JFrame {
         resetBtn.addActionListener(e -> resetProblem());
         nextStepBtn.addActionListener(e -> stepForward());
         prevStepBtn.addActionListener(e -> stepBackward());
+        stopBtn.addActionListener(e -> {
+            if (job != null) job.cancel();
+        });
     }
 
     private void setupLayout() {
@@ -115,19 +162,49 @@ public class SubsetSum extends JFrame {
         inputPanel.add(arrayField);
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        buttonPanel.add(new JLabel("Engine:"));
+        buttonPanel.add(engineBox);
+        buttonPanel.add(countBox);
         buttonPanel.add(solveBtn);
+        buttonPanel.add(stopBtn);
         buttonPanel.add(prevStepBtn);
         buttonPanel.add(nextStepBtn);
         buttonPanel.add(resetBtn);
 
+        JPanel limitPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        limitPanel.add(new JLabel("Limits:"));
+        limitPanel.add(timeLimitBox);
+        limitPanel.add(nodeLimitBox);
+
         controlPanel.add(inputPanel);
         controlPanel.add(Box.createVerticalStrut(10));
         controlPanel.add(buttonPanel);
+        controlPanel.add(limitPanel);
 
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
         mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         mainPanel.add(numbersPanel, BorderLayout.NORTH);
-        mainPanel.add(new JScrollPane(resultArea), BorderLayout.CENTER);
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.add(new JLabel("Size:"));
+        filterPanel.add(sizeFilterField);
+        filterPanel.add(new JLabel("Includes index:"));
+        filterPanel.add(includeFilterField);
+        filterPanel.add(filterBtn);
+        filterPanel.add(Box.createHorizontalStrut(20));
+        filterPanel.add(new JLabel("Go to #"));
+        filterPanel.add(jumpField);
+        filterPanel.add(jumpBtn);
+        filterPanel.add(Box.createHorizontalStrut(20));
+        filterPanel.add(solutionsLabel);
+
+        JPanel solutionsPanel = new JPanel(new BorderLayout());
+        solutionsPanel.setBorder(BorderFactory.createTitledBorder("Solutions"));
+        solutionsPanel.add(filterPanel, BorderLayout.NORTH);
+        solutionsPanel.add(new JScrollPane(solutionList), BorderLayout.CENTER);
+
+        JSplitPane resultsSplit = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(resultArea), solutionsPanel);
+        resultsSplit.setResizeWeight(0.4);
+        mainPanel.add(resultsSplit, BorderLayout.CENTER);
 
         JPanel footerPanel = new JPanel(new BorderLayout(10, 10));
         footerPanel.add(progressBar, BorderLayout.NORTH);
@@ -165,10 +242,13 @@ public class SubsetSum extends JFrame {
         }
 
         backtrackSteps = 0;
-        allSolutions = new ArrayList<>();
-        stateHistory.clear();
+        solutionCount = 0;
+        trail = null;
         currentStateIndex = -1;
         isSolving = false;
+        resultModel = null;
+        solutionList.setModel(new DefaultListModel<>());
+        solutionsLabel.setText("0 shown of 0");
 
         updateNumbersDisplay();
         resultArea.setText(getComplexityAnalysis());
@@ -182,8 +262,8 @@ public class SubsetSum extends JFrame {
 
     private void generateRandomArray() {
         Random rand = new Random();
-        numbers = new int[MAX_NUMBERS];
-        for (int i = 0; i < MAX_NUMBERS; i++) {
+        numbers = new int[RANDOM_NUMBERS];
+        for (int i = 0; i < RANDOM_NUMBERS; i++) {
             numbers[i] = rand.nextInt(20) + 1;
         }
         arrayField.setText(arrayToString());
@@ -200,8 +280,16 @@ public class SubsetSum extends JFrame {
 
     private void updateNumbersDisplay() {
         numbersPanel.removeAll();
-        for (int num : numbers) {
-            JLabel numLabel = new JLabel(String.valueOf(num), SwingConstants.CENTER);
+        // Long inputs wrap onto further rows
+        int shown = Math.min(numbers.length, MAX_SHOWN_NUMBERS);
+        int columns = Math.max(1, Math.min(shown, NUMBERS_PER_ROW));
+        int rows = (shown + columns - 1) / columns;
+        numbersPanel.setLayout(new GridLayout(0, columns, 10, 10));
+        numbersPanel.setPreferredSize(new Dimension(800, 40 + 40 * Math.max(1, rows)));
+        for (int i = 0; i < shown; i++) {
+            boolean more = i == shown - 1 && shown < numbers.length;
+            String text = more ? "+" + (numbers.length - i) + " more" : String.valueOf(numbers[i]);
+            JLabel numLabel = new JLabel(text, SwingConstants.CENTER);
             numLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
             numLabel.setOpaque(true);
             numLabel.setBackground(Color.WHITE);
@@ -213,100 +301,383 @@ public class SubsetSum extends JFrame {
     }
 
     private void solveSubsetSum() {
+        Object engine = engineBox.getSelectedItem();
+        boolean meetInMiddle = MEET_IN_MIDDLE.equals(engine);
+        boolean dynamicProgramming = DYNAMIC_PROGRAMMING.equals(engine);
+        boolean branchAndBound = BRANCH_AND_BOUND.equals(engine);
+        boolean parallel = PARALLEL.equals(engine);
+        if (parallel && numbers.length > SubsetSumEnumerator.MAX_SIZE) {
+            JOptionPane.showMessageDialog(this, "Parallel Enumeration is limited to " + SubsetSumEnumerator.MAX_SIZE + " numbers.",
+                    "Input Too Large", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (meetInMiddle && numbers.length > SubsetSumMeetInMiddle.MAX_SIZE) {
+            JOptionPane.showMessageDialog(this, "Meet in the Middle is limited to " + SubsetSumMeetInMiddle.MAX_SIZE
+                    + " numbers.\nUse Dynamic Programming for longer inputs of non-negative numbers.",
+                    "Input Too Large", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (meetInMiddle) {
+            // The halves are allocated at once, so a run that cannot fit is refused up front
+            Runtime runtime = Runtime.getRuntime();
+            long free = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+            long needed = SubsetSumMeetInMiddle.memoryBytes(numbers.length);
+            if (needed > free) {
+                JOptionPane.showMessageDialog(this, String.format("Meet in the Middle needs about %d MB for %d numbers,"
+                        + " but only %d MB of heap are free.\nUse fewer numbers or a larger heap (-Xmx).",
+                        needed >> 20, numbers.length, free >> 20), "Not Enough Memory", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+        }
+        if (dynamicProgramming && (targetSum < 0 || Arrays.stream(numbers).anyMatch(x -> x < 0))) {
+            JOptionPane.showMessageDialog(this, "Dynamic Programming needs non-negative numbers and target.",
+                    "Invalid Input", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (!meetInMiddle && !dynamicProgramming && !branchAndBound && !parallel && numbers.length > MAX_STEPPED_NUMBERS) {
+            JOptionPane.showMessageDialog(this, "Backtracking records every step and is limited to " + MAX_STEPPED_NUMBERS
+                    + " numbers.\nUse the Meet in the Middle engine for larger inputs.",
+                    "Input Too Large", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
         isSolving = true;
         solveBtn.setEnabled(false);
         nextStepBtn.setEnabled(false);
         prevStepBtn.setEnabled(false);
         resetBtn.setEnabled(false);
+        stopBtn.setEnabled(true);
         progressBar.setVisible(true);
         progressBar.setIndeterminate(true);
+        progressBar.setValue(0);
+        progressBar.setString(null);
         animationTimer.start();
         statusLabel.setText("Solving...");
-        allSolutions.clear();
+        solutionCount = 0;
         backtrackSteps = 0;
-        stateHistory.clear();
+        trail = null;
         currentStateIndex = -1;
+        SubsetSumResults results = startResults();
+        SolverBudget budget = new SolverBudget(TIME_LIMITS_MS[timeLimitBox.getSelectedIndex()],
+                NODE_LIMITS[nodeLimitBox.getSelectedIndex()]);
+
+        if (meetInMiddle) {
+            solveWithMeetInMiddle(results, budget);
+            return;
+        }
+        if (dynamicProgramming) {
+            solveWithDynamicProgramming(countBox.isSelected(), budget);
+            return;
+        }
+        if (branchAndBound) {
+            solveWithBranchAndBound(results, budget);
+            return;
+        }
+        if (parallel) {
+            solveInParallel(results, budget);
+            return;
+        }
 
-        new Thread(() -> {
+        SubsetSumSearch search = new SubsetSumSearch(numbers, targetSum);
+        search.setSolutionSink(results::add);
+        search.setBudget(budget);
+        startProgress(search::getStepsSoFar, search::getExploredFraction, results);
+        startJob(budget, () -> {
             long startTime = System.currentTimeMillis();
-            findAllSubsets(0, 0, new ArrayList<>(), new ArrayList<>());
+            search.solve();
             long duration = System.currentTimeMillis() - startTime;
 
             SwingUtilities.invokeLater(() -> {
-                StringBuilder resultText = new StringBuilder();
-                resultText.append(String.format("Found %d solutions in %d steps (%d ms)\n\n",
-                        allSolutions.size(), backtrackSteps, duration));
-                for (int i = 0; i < allSolutions.size(); i++) {
-                    resultText.append(String.format("%d. %s\n", i + 1, allSolutions.get(i)));
-                }
-                //resultText.append("\n").append(getComplexityAnalysis());
-                resultArea.setText(resultText.toString());
+                backtrackSteps = search.getBacktrackSteps();
+                solutionCount = search.getSolutionCount();
+                trail = search.getTrail();
+
+                resultArea.setText(stoppedHeader(budget) + String.format("Found %d solutions in %d steps (%d ms)\n",
+                        solutionCount, backtrackSteps, duration));
+                statsLabel.setText(String.format("Steps: %d | Solutions: %d", backtrackSteps, solutionCount));
+                finishSolve();
 
-                solveBtn.setEnabled(true);
-                nextStepBtn.setEnabled(true);
-                prevStepBtn.setEnabled(true);
-                resetBtn.setEnabled(true);
-                progressBar.setVisible(false);
-                animationTimer.stop();
-                statusLabel.setText("Done");
-                statsLabel.setText(String.format("Steps: %d | Solutions: %d", backtrackSteps, allSolutions.size()));
-                colorAllNumbersCyan();
-                isSolving = false;
-                
                 // Enable navigation through history
-                if (!stateHistory.isEmpty()) {
+                if (trail.size() > 0) {
                     currentStateIndex = 0;
-                    showState(stateHistory.get(0));
+                    showState(trail.stateAt(0));
                 }
             });
-        }).start();
+        });
     }
 
-    private void findAllSubsets(int index, int sum, List<Integer> subset, List<Integer> indexPath) {
-        // Save state before processing
-        saveState(index, sum, subset, indexPath, "Exploring index " + index);
-        
-        backtrackSteps++;
-        SwingUtilities.invokeLater(() -> {
-            statsLabel.setText(String.format("Steps: %d | Solutions: %d", backtrackSteps, allSolutions.size()));
+    private void solveWithMeetInMiddle(SubsetSumResults results, SolverBudget budget) {
+        startJob(budget, () -> {
+            long startTime = System.currentTimeMillis();
+            SubsetSumMeetInMiddle engine = new SubsetSumMeetInMiddle(numbers, targetSum);
+            engine.setBudget(budget);
+            // Listing first builds the halves with their masks once, and counting reuses them.
+            // The budget is charged a node per listed solution, in batches of 4096
+            engine.forEachSolution(mask -> results.add(mask)
+                    && ((results.getTotal() & 0xFFF) != 0 || !budget.spend(0x1000)));
+            long count = engine.count();
+            long duration = System.currentTimeMillis() - startTime;
+            String found = count >= 0 ? Long.toString(count) : "undecided";
+
+            SwingUtilities.invokeLater(() -> {
+                resultArea.setText(stoppedHeader(budget)
+                        + String.format("Found %s solutions by meet in the middle (%d ms)\n", found, duration));
+                statsLabel.setText(String.format("Solutions: %s", found));
+                finishSolve();
+            });
         });
+    }
 
-        if (sum == targetSum) {
-            allSolutions.add(new ArrayList<>(subset));
-            saveState(index, sum, subset, indexPath, "Solution found!");
-            return;
+    private void solveInParallel(SubsetSumResults results, SolverBudget budget) {
+        SubsetSumEnumerator enumerator = new SubsetSumEnumerator();
+        enumerator.setBudget(budget);
+        int[] input = numbers;
+        startProgress(enumerator::getNodes, enumerator::getExploredFraction, results);
+
+        startJob(budget, () -> {
+            long startTime = System.currentTimeMillis();
+            long count = enumerator.enumerate(input, targetSum, results::add);
+            long duration = System.currentTimeMillis() - startTime;
+
+            SwingUtilities.invokeLater(() -> {
+                resultArea.setText(stoppedHeader(budget) + String.format("Found %d solutions in %d steps on %d threads (%d ms)\n",
+                        count, enumerator.getNodes(), enumerator.getParallelism(), duration));
+                statsLabel.setText(String.format("Steps: %d | Solutions: %d", enumerator.getNodes(), count));
+                finishSolve();
+            });
+        });
+    }
+
+    private void solveWithBranchAndBound(SubsetSumResults results, SolverBudget budget) {
+        // Up to 63 numbers the distinct subsets go to the results list, beyond that a few are printed
+        boolean listed = numbers.length <= SubsetSumEnumerator.MAX_SIZE;
+        startJob(budget, () -> {
+            long startTime = System.currentTimeMillis();
+            SubsetSumBranchAndBound engine = new SubsetSumBranchAndBound(numbers, targetSum);
+            engine.setBudget(budget);
+            SubsetSumBranchAndBound.Result result = listed
+                    ? engine.solve(0, results::add) : engine.solve(MAX_LISTED_SOLUTIONS);
+            long duration = System.currentTimeMillis() - startTime;
+            String header = stoppedHeader(budget);
+            // Node count of the plain include/exclude search for comparison, where it is feasible;
+            // it finds the same subsets by index, so its count checks the one above. It runs on
+            // what is left of the budget
+            long plainNodes = -1;
+            long plainSolutions = -1;
+            boolean plainStopped = false;
+            if (numbers.length <= MAX_STEPPED_NUMBERS && !budget.isStopped()) {
+                SubsetSumSearch plain = new SubsetSumSearch(numbers, targetSum, false);
+                plain.setBudget(budget);
+                plain.solve();
+                plainNodes = plain.getBacktrackSteps();
+                plainSolutions = plain.getSolutionCount();
+                plainStopped = budget.isStopped();
+            }
+            long comparedNodes = plainNodes;
+            long comparedSolutions = plainSolutions;
+            boolean comparisonStopped = plainStopped;
+
+            SwingUtilities.invokeLater(() -> {
+                StringBuilder resultText = new StringBuilder(header);
+                resultText.append(String.format("Found %d distinct subsets (%d by index) by branch and bound (%d ms)\n",
+                        result.getSolutionCount(), result.getIndexSubsetCount(), duration));
+                resultText.append(String.format("Nodes visited: %d, branches pruned: %d\n",
+                        result.getNodes(), result.getPrunedBranches()));
+                if (comparisonStopped) {
+                    resultText.append(String.format("Plain backtracking was stopped (%s) after %d nodes\n",
+                            budget.getStop(), comparedNodes));
+                } else if (comparedNodes >= 0) {
+                    resultText.append(String.format("Plain backtracking visits %d nodes for the same %d subsets by index\n",
+                            comparedNodes, comparedSolutions));
+                } else if (!budget.isStopped()) {
+                    resultText.append(String.format("Plain backtracking tree: up to 2^%d nodes\n", numbers.length + 1));
+                }
+                if (!listed) {
+                    List<List<Integer>> solutions = result.getSolutions();
+                    resultText.append(String.format("\nFirst %d of them:\n", solutions.size()));
+                    for (int i = 0; i < solutions.size(); i++) {
+                        resultText.append(String.format("%d. %s\n", i + 1, solutions.get(i)));
+                    }
+                }
+                resultArea.setText(resultText.toString());
+                resultArea.setCaretPosition(0);
+                statsLabel.setText(String.format("Nodes: %d | Pruned: %d | Solutions: %d",
+                        result.getNodes(), result.getPrunedBranches(), result.getSolutionCount()));
+                finishSolve();
+            });
+        });
+    }
+
+    private void solveWithDynamicProgramming(boolean count, SolverBudget budget) {
+        startJob(budget, () -> {
+            long startTime = System.currentTimeMillis();
+            SubsetSumDP engine = new SubsetSumDP(numbers, targetSum);
+            engine.setBudget(budget);
+            List<Integer> witness = engine.witness();
+            // A witness found before the budget ran out still stands; a missing one proves nothing
+            boolean decided = witness != null || !budget.isStopped();
+            long subsets = count && witness != null ? engine.count() : -1;
+            long duration = System.currentTimeMillis() - startTime;
+
+            SwingUtilities.invokeLater(() -> {
+                StringBuilder resultText = new StringBuilder(stoppedHeader(budget));
+                resultText.append(String.format("Target %d is %s by dynamic programming (%d ms)\n\n", targetSum,
+                        witness != null ? "reachable" : decided ? "not reachable" : "undecided", duration));
+                if (subsets == Long.MAX_VALUE) {
+                    resultText.append(String.format("Subsets: at least %d\n", subsets));
+                } else if (subsets >= 0) {
+                    resultText.append(String.format("Subsets: %d\n", subsets));
+                }
+                if (witness != null) {
+                    resultText.append(String.format("One solution (%d numbers): %s\n", witness.size(), witness));
+                }
+                resultArea.setText(resultText.toString());
+                resultArea.setCaretPosition(0);
+                statsLabel.setText(subsets >= 0 ? String.format("Solutions: %d", subsets)
+                        : String.format("Reachable: %s", witness != null ? "yes" : decided ? "no" : "unknown"));
+                finishSolve();
+            });
+        });
+    }
+
+    // Runs a solve on the shared solver executor; Stop cancels it through its budget
+    private void startJob(SolverBudget budget, Runnable solve) {
+        try {
+            job = SolverJob.submit(budget, () -> {
+                try {
+                    solve.run();
+                } catch (RuntimeException | Error e) {
+                    // The job reports the failure; the window must still become usable again
+                    SwingUtilities.invokeLater(() -> {
+                        resultArea.setText("Solver failed: " + e + "\n");
+                        finishSolve();
+                    });
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            resultArea.setText("Too many solver jobs queued, try again later\n");
+            finishSolve();
         }
-        if (index >= numbers.length || sum > targetSum) {
-            saveState(index, sum, subset, indexPath, "Backtracking from index " + index);
-            return;
+    }
+
+    // Heads the results of a run its budget stopped early
+    private static String stoppedHeader(SolverBudget budget) {
+        return budget.isStopped() ? String.format("Stopped (%s), the results are partial\n\n", budget.getStop()) : "";
+    }
+
+    // Samples the solver's progress counters on the event thread; the bar shows the explored
+    // share of the search tree and an ETA extrapolated from the time taken so far
+    private void startProgress(LongSupplier steps, DoubleSupplier explored, SubsetSumResults results) {
+        long startTime = System.nanoTime();
+        Timer timer = new Timer(PROGRESS_INTERVAL_MS, null);
+        timer.addActionListener(e -> {
+            double fraction = explored.getAsDouble();
+            double elapsed = (System.nanoTime() - startTime) / 1e9;
+            progressBar.setIndeterminate(false);
+            progressBar.setValue((int) (fraction * progressBar.getMaximum()));
+            String eta = fraction > 0 ? formatSeconds(elapsed * (1 - fraction) / fraction) : "unknown";
+            progressBar.setString(String.format("%.1f%% explored, ETA %s", fraction * 100, eta));
+            statsLabel.setText(String.format("Steps: %d | Solutions: %d", steps.getAsLong(), results.getTotal()));
+        });
+        timer.start();
+        progressTimer = timer;
+    }
+
+    private static String formatSeconds(double seconds) {
+        if (seconds < 60) return String.format("%.0fs", seconds);
+        if (seconds < 3600) return String.format("%dm %02ds", (long) seconds / 60, (long) seconds % 60);
+        return String.format("%dh %02dm", (long) seconds / 3600, (long) seconds % 3600 / 60);
+    }
+
+    // Gives the solution list a fresh store; the list refreshes from it while the solver runs
+    private SubsetSumResults startResults() {
+        SubsetSumResults results = new SubsetSumResults();
+        resultModel = new SubsetSumResultModel(numbers, results);
+        // A prototype row fixes the cell size, so the list never measures every row
+        StringBuilder prototype = new StringBuilder("0000000. []  size 00");
+        for (int i = 0; i < Math.min(numbers.length, SubsetSumEnumerator.MAX_SIZE); i++) {
+            prototype.append(numbers[i]).append(", ");
         }
+        solutionList.setPrototypeCellValue(prototype.toString());
+        solutionList.setModel(resultModel);
+        applyFilter();
+        resultsTimer.start();
+        return results;
+    }
 
-        // Include current number
-        subset.add(numbers[index]);
-        indexPath.add(index);
-        saveState(index, sum + numbers[index], subset, indexPath, 
-                 "Including " + numbers[index] + " at index " + index);
-        findAllSubsets(index + 1, sum + numbers[index], subset, indexPath);
-        
-        // Exclude current number
-        subset.remove(subset.size() - 1);
-        indexPath.remove(indexPath.size() - 1);
-        saveState(index, sum, subset, indexPath, 
-                 "Excluding " + numbers[index] + " at index " + index);
-        findAllSubsets(index + 1, sum, subset, indexPath);
+    private void refreshResults() {
+        if (resultModel == null) return;
+        resultModel.refresh();
+        SubsetSumResults results = resultModel.getResults();
+        String kept = results.getTotal() > results.size() ? String.format(" (first %d kept)", results.size()) : "";
+        solutionsLabel.setText(String.format("%d shown of %d%s", resultModel.getSize(), results.getTotal(), kept));
+    }
+
+    private void finishSolve() {
+        if (progressTimer != null) progressTimer.stop();
+        progressTimer = null;
+        resultsTimer.stop();
+        refreshResults();
+        solveBtn.setEnabled(true);
+        nextStepBtn.setEnabled(true);
+        prevStepBtn.setEnabled(true);
+        resetBtn.setEnabled(true);
+        stopBtn.setEnabled(false);
+        progressBar.setVisible(false);
+        animationTimer.stop();
+        statusLabel.setText(job != null && job.getBudget().isStopped() ? "Stopped (" + job.getBudget().getStop() + ")" : "Done");
+        job = null;
+        colorAllNumbersCyan();
+        isSolving = false;
+    }
+
+    // Size and included index filters; blank fields accept everything
+    private void applyFilter() {
+        if (resultModel == null) return;
+        try {
+            String size = sizeFilterField.getText().trim();
+            String included = includeFilterField.getText().trim();
+            resultModel.setFilter(size.isEmpty() ? -1 : Integer.parseInt(size),
+                    included.isEmpty() ? -1 : Integer.parseInt(included));
+            refreshResults();
+        } catch (IllegalArgumentException e) {
+            statusLabel.setText("Invalid filter: " + e.getMessage());
+        }
+    }
+
+    private void jumpToSolution() {
+        if (resultModel == null) return;
+        try {
+            int k = Integer.parseInt(jumpField.getText().trim());
+            int row = resultModel.rowOf(k - 1);
+            if (row < 0) {
+                statusLabel.setText("Solution " + k + " is not in the list");
+                return;
+            }
+            solutionList.setSelectedIndex(row);
+            solutionList.ensureIndexIsVisible(row);
+        } catch (NumberFormatException e) {
+            statusLabel.setText("Enter a solution number");
+        }
     }
 
-    private void saveState(int index, int sum, List<Integer> subset, 
-                         List<Integer> indexPath, String description) {
-        stateHistory.add(new BacktrackState(index, sum, subset, indexPath, description));
+    private void showSelectedSolution() {
+        int row = solutionList.getSelectedIndex();
+        if (row < 0 || isSolving) return;
+        long mask = resultModel.getMask(row);
+        List<Integer> indices = new ArrayList<>();
+        for (long m = mask; m != 0; m &= m - 1) indices.add(Long.numberOfTrailingZeros(m));
+        highlightCurrentSelection(indices);
     }
 
     private void stepForward() {
         if (isSolving) return;
         
-        if (currentStateIndex < stateHistory.size() - 1) {
+        if (trail != null && currentStateIndex < trail.size() - 1) {
             currentStateIndex++;
-            showState(stateHistory.get(currentStateIndex));
+            showState(trail.stateAt(currentStateIndex));
+        } else if (trail == null) {
+            statusLabel.setText("Step history is recorded by the Backtracking engine");
         } else {
             statusLabel.setText("Reached end of history");
         }
@@ -315,21 +686,21 @@ public class SubsetSum extends JFrame {
     private void stepBackward() {
         if (isSolving) return;
         
-        if (currentStateIndex > 0) {
+        if (trail != null && currentStateIndex > 0) {
             currentStateIndex--;
-            showState(stateHistory.get(currentStateIndex));
+            showState(trail.stateAt(currentStateIndex));
         } else {
             statusLabel.setText("At initial state");
         }
     }
 
-    private void showState(BacktrackState state) {
+    private void showState(SubsetSumSearch.BacktrackState state) {
         // Update number highlighting
         highlightCurrentSelection(state.indexPath);
         
         // Update status
-        statusLabel.setText(state.description);
-        statsLabel.setText(String.format("Steps: %d | Solutions: %d", backtrackSteps, allSolutions.size()));
+        statusLabel.setText(String.format("Step %d of %d: %s", currentStateIndex + 1, trail.size(), state.description));
+        statsLabel.setText(String.format("Steps: %d | Solutions: %d", backtrackSteps, solutionCount));
         
         // Update result area with current state info
         resultArea.setText(String.format(
@@ -337,8 +708,7 @@ public class SubsetSum extends JFrame {
             "Index: %d\n" +
             "Current Sum: %d\n" +
             "Current Subset: %s\n" +
-            "Target Sum: %d\n\n" +
-            "%s",
+            "Target Sum: %d\n",
             state.index, state.currentSum, state.currentSolution, targetSum
             //getComplexityAnalysis()
         ));
@@ -366,7 +736,17 @@ public class SubsetSum extends JFrame {
                 "1. Worst Case: O(2^n) - Exponential time\n" +
                 "2. Average Case: O(2^n) - Almost the same as worst case\n" +
                 "3. Best Case: O(1) - No solutions\n" +
-                "Space Complexity: O(n) - Recursion stack depth\n";
+                "Space Complexity: O(n) - Recursion stack depth\n" +
+                "\nBranch and Bound:\n" +
+                "Sorted, equal values grouped, branches cut when the remaining sums cannot reach the target\n" +
+                "\nParallel Enumeration:\n" +
+                "The same tree split over all cores, solutions streamed as index masks\n" +
+                "\nMeet in the Middle:\n" +
+                "Time: O(n * 2^(n/2)) - Sorted sums of each half, matched in one pass\n" +
+                "Space: O(2^(n/2)) - Up to " + SubsetSumMeetInMiddle.MAX_SIZE + " numbers\n" +
+                "\nDynamic Programming (non-negative numbers):\n" +
+                "Time: O(n * target / 64) - Reachable sums as a bitset, O(n * target) to count\n" +
+                "Space: O(sqrt(n) * target / 64) - Checkpoints to rebuild one solution\n";
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,396 @@
+/*This is not part of the Eight Queens simulation */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Headless batch mode for SubsetSum: solves every instance in a file and writes one CSV
+ * line per instance (n, target, engine, number of subsets, one solution).
+ *
+ *   java SubsetSumBatch --in instances.txt [--out results.csv] [--threads P]
+ *                       [--time-limit MS] [--node-limit NODES]
+ *   java SubsetSumBatch --generate COUNT --size N --max V [--seed S] --out instances.txt
+ *
+ * Text instances are one per line, the target first and then the numbers, separated by
+ * spaces, tabs, commas or a colon; blank lines and lines starting with # are skipped.
+ * Binary files start with the int MAGIC and hold, per instance, the target, the count
+ * and the numbers as big-endian ints.
+ *
+ * The file is memory-mapped and indexed in one pass over its bytes. Workers then parse
+ * the numbers of their instances straight from the mapped bytes into int arrays (no
+ * String per line), pick the engine with the lowest estimated cost for each instance,
+ * and format a chunk of results at a time. Each instance gets its own SolverBudget; one
+ * that runs out is written with "undecided" as its count (and a solution if one was
+ * found), so a single hard instance cannot stall the batch. The chunks are written in input order
+ * through a buffered channel, and the throughput is reported on stderr at the end.
+ */
+public class SubsetSumBatch {
+    public static final int MAGIC = 0x53534231;   // "SSB1"
+    private static final String USAGE =
+            "Usage: java SubsetSumBatch --in FILE [--out FILE] [--threads P] [--time-limit MS] [--node-limit NODES]\n" +
+            "       java SubsetSumBatch --generate COUNT --size N --max V [--seed S] --out FILE";
+    private static final int CHUNK = 64;
+    private static final int OUTPUT_BUFFER = 1 << 20;
+    // Memory bounds per worker for the dynamic-programming engine
+    private static final int MAX_COUNT_TARGET = 1 << 22;
+    private static final long MAX_BITSET_BYTES = 64L << 20;
+
+    private Path in;
+    private Path out;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long timeLimit = 1000;
+    private long nodeLimit;
+    // Largest input for meet in the middle, so that every worker's halves fit in the heap
+    private int maxMitmSize = SubsetSumMeetInMiddle.MAX_SIZE;
+    private int generate;
+    private int size = 20;
+    private int max = 100;
+    private long seed = new SplittableRandom().nextLong();
+
+    private final LongAdder[] engineUse = {new LongAdder(), new LongAdder(), new LongAdder()};
+    private final LongAdder undecided = new LongAdder();
+    private static final String[] ENGINES = {"meet-in-the-middle", "dynamic-programming", "branch-and-bound"};
+
+    public static void main(String[] args) {
+        SubsetSumBatch batch = new SubsetSumBatch();
+        try {
+            batch.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try {
+            if (batch.generate > 0) {
+                batch.generateInstances();
+            } else {
+                batch.run();
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("I/O error: " + e);
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--help") || arg.equals("-h")) throw new IllegalArgumentException("SubsetSum batch runner");
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            try {
+                switch (arg) {
+                    case "--in": in = Paths.get(value); break;
+                    case "--out": out = Paths.get(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--time-limit": timeLimit = Long.parseLong(value); break;
+                    case "--node-limit": nodeLimit = Long.parseLong(value); break;
+                    case "--generate": generate = Integer.parseInt(value); break;
+                    case "--size": size = Integer.parseInt(value); break;
+                    case "--max": max = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    default: throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number for " + arg + ": " + value);
+            }
+        }
+        if (threads < 1) throw new IllegalArgumentException("Threads must be positive: " + threads);
+        if (timeLimit < 0 || nodeLimit < 0) throw new IllegalArgumentException("Limits must not be negative (0 for none)");
+        if (generate > 0) {
+            if (out == null) throw new IllegalArgumentException("--generate needs --out");
+            if (size < 1 || max < 1) throw new IllegalArgumentException("Size and max must be positive");
+        } else if (in == null) {
+            throw new IllegalArgumentException("Missing --in");
+        }
+    }
+
+    private void run() throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ)) {
+            if (input.size() > Integer.MAX_VALUE) throw new IllegalArgumentException("Instance files are limited to 2 GB: " + in);
+            MappedByteBuffer bytes = input.map(FileChannel.MapMode.READ_ONLY, 0, input.size());
+            Instances instances = Instances.index(bytes);
+            // Leave half the heap for everything else
+            long workerMemory = Runtime.getRuntime().maxMemory() / (2L * threads);
+            while (maxMitmSize > 0 && SubsetSumMeetInMiddle.memoryBytes(maxMitmSize) > workerMemory) maxMitmSize--;
+
+            ExecutorService workers = Executors.newFixedThreadPool(threads);
+            List<Future<byte[]>> chunks = new ArrayList<>();
+            for (int first = 0; first < instances.count; first += CHUNK) {
+                int from = first;
+                int to = Math.min(instances.count, first + CHUNK);
+                chunks.add(workers.submit(() -> solveChunk(instances, from, to)));
+            }
+            workers.shutdown();
+
+            WritableByteChannel output = out == null ? Channels.newChannel(System.out)
+                    : FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(OUTPUT_BUFFER);
+                write(output, buffer, "instance,n,target,engine,subsets,solution\n".getBytes(StandardCharsets.US_ASCII));
+                // Chunks are written in input order as they complete
+                for (Future<byte[]> chunk : chunks) write(output, buffer, chunk.get());
+                buffer.flip();
+                while (buffer.hasRemaining()) output.write(buffer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IllegalArgumentException) throw (IllegalArgumentException) cause;
+                throw new IOException("Solving failed: " + cause, cause);
+            } finally {
+                workers.shutdownNow();
+                if (out != null) output.close();
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf(Locale.ROOT, "%d instances in %.3f s (%.0f instances/s) on %d threads; %s %d, %s %d, %s %d; %d undecided%n",
+                    instances.count, seconds, instances.count / seconds, threads,
+                    ENGINES[0], engineUse[0].sum(), ENGINES[1], engineUse[1].sum(), ENGINES[2], engineUse[2].sum(),
+                    undecided.sum());
+        }
+    }
+
+    private static void write(WritableByteChannel output, ByteBuffer buffer, byte[] data) throws IOException {
+        int offset = 0;
+        while (offset < data.length) {
+            if (!buffer.hasRemaining()) {
+                buffer.flip();
+                while (buffer.hasRemaining()) output.write(buffer);
+                buffer.clear();
+            }
+            int length = Math.min(buffer.remaining(), data.length - offset);
+            buffer.put(data, offset, length);
+            offset += length;
+        }
+    }
+
+    private byte[] solveChunk(Instances instances, int from, int to) {
+        StringBuilder text = new StringBuilder();
+        Scratch scratch = new Scratch();
+        for (int k = from; k < to; k++) {
+            int n = instances.parse(k, scratch) - 1;
+            int target = scratch.values[0];
+            int[] numbers = Arrays.copyOfRange(scratch.values, 1, n + 1);
+            text.append(k + 1).append(',').append(n).append(',').append(target).append(',');
+            solve(numbers, target, text);
+            text.append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Appends engine, subset count (blank if not computed, "undecided" if the budget ran
+    // out) and one solution's values
+    private void solve(int[] numbers, int target, StringBuilder text) {
+        int n = numbers.length;
+        // Negative numbers are handled by the DP as if all were taken: leaving one out then
+        // adds its absolute value, so the instance becomes |x| with target - (sum of negatives),
+        // and a subset maps to one with the negatives flipped (same count)
+        long shiftedTarget = target;
+        int[] magnitudes = new int[n];
+        boolean fits = true;
+        for (int i = 0; i < n; i++) {
+            if (numbers[i] < 0) {
+                shiftedTarget -= numbers[i];
+                fits &= numbers[i] != Integer.MIN_VALUE;
+            }
+            magnitudes[i] = Math.abs(numbers[i]);
+        }
+        fits &= shiftedTarget >= 0 && shiftedTarget <= Integer.MAX_VALUE - 64;
+        // Rough operation counts of each engine for this instance
+        double mitmCost = n <= maxMitmSize ? (n + 2.0) * Math.pow(2, (n + 1) / 2 + 1) : Double.MAX_VALUE;
+        double dpCost = fits && shiftedTarget <= MAX_COUNT_TARGET ? (double) n * (shiftedTarget + 1) : Double.MAX_VALUE;
+        long bitsetBytes = (2 * (long) Math.ceil(Math.sqrt(n)) + 2) * ((shiftedTarget >>> 6) + 1) * 8L;
+        boolean dpWitness = fits && bitsetBytes <= MAX_BITSET_BYTES;
+
+        SolverBudget budget = new SolverBudget(timeLimit, nodeLimit);
+        List<Integer> witness;
+        String subsets;
+        int engine;
+        if (mitmCost <= dpCost && mitmCost != Double.MAX_VALUE) {
+            engine = 0;
+            SubsetSumMeetInMiddle mitm = new SubsetSumMeetInMiddle(numbers, target);
+            mitm.setBudget(budget);
+            // The solution first: counting then reuses the halves built for it
+            List<List<Integer>> first = mitm.solutions(1);
+            witness = first.isEmpty() ? null : first.get(0);
+            long count = witness == null || budget.isStopped() ? 0 : mitm.count();
+            subsets = budget.isStopped() ? "undecided" : Long.toString(count);
+        } else if (dpCost != Double.MAX_VALUE || dpWitness) {
+            engine = 1;
+            SubsetSumDP dp = new SubsetSumDP(magnitudes, (int) shiftedTarget);
+            dp.setBudget(budget);
+            int[] chosen = dp.witnessIndices();
+            witness = null;
+            if (chosen != null) {
+                boolean[] taken = new boolean[n];
+                for (int i : chosen) taken[i] = true;
+                witness = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    if (taken[i] != numbers[i] < 0) witness.add(numbers[i]);
+                }
+            }
+            // The count table is a long per sum, so only small targets are counted
+            long count = witness != null && dpCost != Double.MAX_VALUE ? dp.count() : -1;
+            subsets = budget.isStopped() ? "undecided" : witness == null ? "0" : count >= 0 ? Long.toString(count) : "";
+        } else {
+            engine = 2;
+            SubsetSumBranchAndBound solver = new SubsetSumBranchAndBound(numbers, target);
+            solver.setBudget(budget);
+            SubsetSumBranchAndBound.Result result = solver.solve(1);
+            witness = result.getSolutions().isEmpty() ? null : result.getSolutions().get(0);
+            subsets = budget.isStopped() ? "undecided" : Long.toString(result.getIndexSubsetCount());
+        }
+        engineUse[engine].increment();
+        if (budget.isStopped()) undecided.increment();
+        text.append(ENGINES[engine]).append(',').append(subsets).append(',');
+        if (witness != null) {
+            for (int i = 0; i < witness.size(); i++) {
+                if (i > 0) text.append(' ');
+                text.append(witness.get(i));
+            }
+        }
+    }
+
+    private void generateInstances() throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (FileChannel output = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(OUTPUT_BUFFER);
+            StringBuilder line = new StringBuilder();
+            int[] numbers = new int[size];
+            for (int k = 0; k < generate; k++) {
+                long total = 0;
+                for (int i = 0; i < size; i++) {
+                    numbers[i] = random.nextInt(max) + 1;
+                    total += numbers[i];
+                }
+                line.setLength(0);
+                line.append(total / 2).append(':');
+                for (int x : numbers) line.append(' ').append(x);
+                line.append('\n');
+                write(output, buffer, line.toString().getBytes(StandardCharsets.US_ASCII));
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) output.write(buffer);
+        }
+    }
+
+    // Parse buffer reused by one worker for all its instances
+    private static class Scratch {
+        int[] values = new int[64];
+    }
+
+    // Start offsets of the instances in a mapped file; parsing reads the bytes with
+    // absolute gets, so workers can share the buffer
+    private static class Instances {
+        final ByteBuffer bytes;
+        final boolean binary;
+        int[] starts = new int[1024];
+        int count;
+
+        private Instances(ByteBuffer bytes, boolean binary) {
+            this.bytes = bytes;
+            this.binary = binary;
+        }
+
+        static Instances index(ByteBuffer bytes) {
+            int limit = bytes.limit();
+            boolean binary = limit >= 4 && bytes.getInt(0) == MAGIC;
+            Instances instances = new Instances(bytes, binary);
+            if (binary) {
+                int position = 4;
+                while (position < limit) {
+                    if (position + 8 > limit) throw new IllegalArgumentException("Truncated instance at byte " + position);
+                    int n = bytes.getInt(position + 4);
+                    if (n < 0 || position + 8 + 4L * n > limit) throw new IllegalArgumentException("Bad instance at byte " + position);
+                    instances.add(position);
+                    position += 8 + 4 * n;
+                }
+                return instances;
+            }
+            int position = 0;
+            while (position < limit) {
+                int end = position;
+                while (end < limit && bytes.get(end) != '\n') end++;
+                // Skip blank and comment lines
+                int first = position;
+                while (first < end && isSeparator(bytes.get(first))) first++;
+                if (first < end && bytes.get(first) != '#') instances.add(position);
+                position = end + 1;
+            }
+            return instances;
+        }
+
+        private void add(int start) {
+            if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+            starts[count++] = start;
+        }
+
+        // Reads instance k into scratch as the target followed by the numbers and returns
+        // how many values that is
+        int parse(int k, Scratch scratch) {
+            int position = starts[k];
+            if (binary) {
+                int n = bytes.getInt(position + 4);
+                if (scratch.values.length < n + 1) scratch.values = new int[n + 1];
+                scratch.values[0] = bytes.getInt(position);
+                for (int i = 0; i < n; i++) scratch.values[i + 1] = bytes.getInt(position + 8 + 4 * i);
+                return n + 1;
+            }
+            int limit = bytes.limit();
+            int values = 0;
+            while (position < limit) {
+                byte b = bytes.get(position);
+                if (b == '\n') break;
+                if (isSeparator(b)) {
+                    position++;
+                    continue;
+                }
+                boolean negative = b == '-';
+                if (negative) position++;
+                long value = 0;
+                int digits = 0;
+                while (position < limit && bytes.get(position) >= '0' && bytes.get(position) <= '9') {
+                    value = value * 10 + (bytes.get(position++) - '0');
+                    if (value > Integer.MAX_VALUE + 1L) break;
+                    digits++;
+                }
+                if (negative) value = -value;
+                if (digits == 0 || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+                    throw new IllegalArgumentException("Bad number in instance " + (k + 1) + " at byte " + position);
+                }
+                if (values == scratch.values.length) scratch.values = Arrays.copyOf(scratch.values, values * 2);
+                scratch.values[values++] = (int) value;
+            }
+            if (values == 0) throw new IllegalArgumentException("Instance " + (k + 1) + " has no target");
+            return values;
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == '\t' || b == ',' || b == ':' || b == '\r';
+        }
+    }
+}
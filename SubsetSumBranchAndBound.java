@@ -0,0 +1,206 @@
+/*This is not part of the Eight Queens simulation */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/*
+ * Branch-and-bound SubsetSum. The input is sorted and equal values are grouped, so the
+ * search decides how many copies of each distinct value to take instead of including
+ * or excluding every copy separately; subsets that differ only in which equal copy
+ * they use are visited once. For every group the sums of the negative and of the
+ * positive values still to come bound what the rest can add, and a branch is cut as
+ * soon as the target lies outside that range. The bounds hold for negative numbers.
+ *
+ * Each distinct subset is also counted by index (the product of the binomials of the
+ * copies taken), which matches the counts of the other engines. For up to 63 numbers
+ * each distinct subset can also be streamed as an index mask, using the first copies
+ * of each value in input order.
+ *
+ * A SolverBudget is charged every CHECK_INTERVAL nodes; when it runs out the search
+ * stops and the result holds what was found up to then.
+ */
+public class SubsetSumBranchAndBound {
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    private final long target;
+    // Distinct values in ascending order and how often each occurs
+    private final long[] values;
+    private final int[] multiplicity;
+    // Smallest and largest sums the groups from g on can add
+    private final long[] minSuffix, maxSuffix;
+    // binomials[g][c] is multiplicity[g] choose c, saturated at Long.MAX_VALUE
+    private final long[][] binomials;
+    // copyMasks[g][c] has the input indices of the first c copies of values[g]; up to 63 numbers
+    private final long[][] copyMasks;
+
+    private int limit;
+    private long nodes;
+    private long prunedBranches;
+    private long solutionCount;
+    private long indexSubsetCount;
+    private List<List<Integer>> solutions;
+    private LongConsumer sink;
+    private int[] taken;
+    private SolverBudget budget = SolverBudget.unlimited();
+    private boolean stopped;
+
+    public static class Result {
+        private final List<List<Integer>> solutions;
+        private final long solutionCount;
+        private final long indexSubsetCount;
+        private final long nodes;
+        private final long prunedBranches;
+
+        Result(List<List<Integer>> solutions, long solutionCount, long indexSubsetCount, long nodes, long prunedBranches) {
+            this.solutions = solutions;
+            this.solutionCount = solutionCount;
+            this.indexSubsetCount = indexSubsetCount;
+            this.nodes = nodes;
+            this.prunedBranches = prunedBranches;
+        }
+
+        // Up to the requested number of distinct subsets, values ascending
+        public List<List<Integer>> getSolutions() { return solutions; }
+        // Subsets that differ in their values
+        public long getSolutionCount() { return solutionCount; }
+        // Subsets of indices, Long.MAX_VALUE if at least that many
+        public long getIndexSubsetCount() { return indexSubsetCount; }
+        public long getNodes() { return nodes; }
+        // Choices cut off by the bounds without being visited
+        public long getPrunedBranches() { return prunedBranches; }
+    }
+
+    public SubsetSumBranchAndBound(int[] numbers, long target) {
+        this.target = target;
+        // Value in the high half, input index in the low half: sorts by value, then by index
+        long[] sorted = new long[numbers.length];
+        for (int i = 0; i < numbers.length; i++) sorted[i] = ((long) numbers[i] << 32) | i;
+        Arrays.sort(sorted);
+        int groups = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || (sorted[i] >> 32) != (sorted[i - 1] >> 32)) groups++;
+        }
+        values = new long[groups];
+        multiplicity = new int[groups];
+        boolean masks = numbers.length <= 63;
+        copyMasks = masks ? new long[groups][] : null;
+        int g = -1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || (sorted[i] >> 32) != (sorted[i - 1] >> 32)) values[++g] = sorted[i] >> 32;
+            multiplicity[g]++;
+        }
+        if (masks) {
+            int i = 0;
+            for (g = 0; g < groups; g++) {
+                copyMasks[g] = new long[multiplicity[g] + 1];
+                for (int c = 1; c <= multiplicity[g]; c++, i++) {
+                    copyMasks[g][c] = copyMasks[g][c - 1] | (1L << (int) sorted[i]);
+                }
+            }
+        }
+        minSuffix = new long[groups + 1];
+        maxSuffix = new long[groups + 1];
+        binomials = new long[groups][];
+        for (g = groups - 1; g >= 0; g--) {
+            long all = values[g] * multiplicity[g];
+            minSuffix[g] = minSuffix[g + 1] + Math.min(0, all);
+            maxSuffix[g] = maxSuffix[g + 1] + Math.max(0, all);
+            binomials[g] = binomialRow(multiplicity[g]);
+        }
+    }
+
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    public Result solve(int limit) {
+        return solve(limit, null);
+    }
+
+    // Also passes one index mask per distinct subset to the sink; up to 63 numbers
+    public Result solve(int limit, LongConsumer sink) {
+        if (sink != null && copyMasks == null) {
+            throw new IllegalArgumentException("Index masks need at most 63 numbers");
+        }
+        this.limit = limit;
+        this.sink = sink;
+        nodes = 0;
+        prunedBranches = 0;
+        solutionCount = 0;
+        indexSubsetCount = 0;
+        solutions = new ArrayList<>();
+        taken = new int[values.length];
+        stopped = false;
+        if (target < minSuffix[0] || target > maxSuffix[0]) {
+            prunedBranches++;
+        } else {
+            search(0, 0, 1, 0L);
+        }
+        return new Result(solutions, solutionCount, indexSubsetCount, nodes, prunedBranches);
+    }
+
+    private void search(int g, long sum, long ways, long mask) {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && budget.spend(CHECK_INTERVAL)) stopped = true;
+        if (stopped) return;
+        if (g == values.length) {
+            // The bounds leave only sum == target here
+            solutionCount++;
+            indexSubsetCount = saturatedAdd(indexSubsetCount, ways);
+            if (solutions.size() < limit) solutions.add(subset());
+            if (sink != null) sink.accept(mask);
+            return;
+        }
+        long value = values[g];
+        for (int c = 0; c <= multiplicity[g] && !stopped; c++) {
+            long next = sum + c * value;
+            if (next + minSuffix[g + 1] > target) {
+                // Taking more copies of a non-negative value only overshoots further
+                if (value >= 0) {
+                    prunedBranches += multiplicity[g] - c + 1;
+                    break;
+                }
+                prunedBranches++;
+                continue;
+            }
+            if (next + maxSuffix[g + 1] < target) {
+                // More copies of a non-positive value only fall further short
+                if (value <= 0) {
+                    prunedBranches += multiplicity[g] - c + 1;
+                    break;
+                }
+                prunedBranches++;
+                continue;
+            }
+            taken[g] = c;
+            search(g + 1, next, saturatedMultiply(ways, binomials[g][c]), copyMasks == null ? 0L : mask | copyMasks[g][c]);
+        }
+        taken[g] = 0;
+    }
+
+    private List<Integer> subset() {
+        List<Integer> subset = new ArrayList<>();
+        for (int g = 0; g < values.length; g++) {
+            for (int c = 0; c < taken[g]; c++) subset.add((int) values[g]);
+        }
+        return subset;
+    }
+
+    private static long[] binomialRow(int n) {
+        long[] row = new long[n + 1];
+        row[0] = 1;
+        for (int k = 1; k <= n; k++) {
+            for (int j = k; j > 0; j--) row[j] = saturatedAdd(row[j], row[j - 1]);
+        }
+        return row;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        return a != 0 && b > Long.MAX_VALUE / a ? Long.MAX_VALUE : a * b;
+    }
+}
@@ -0,0 +1,162 @@
+/*This is not part of the Eight Queens simulation */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Dynamic-programming SubsetSum for many non-negative numbers and a moderate target.
+ * The sums reachable so far are a bitset in a long[] of target / 64 + 1 words; adding
+ * a number x is reachable |= reachable << x, one shift-or per word, so thousands of
+ * numbers and targets in the millions take O(n * target / 64) word operations.
+ *
+ * A witness is rebuilt without keeping the bitset after every number. The numbers are
+ * cut into about sqrt(n) blocks and only the bitset at the start of each block is
+ * kept. Walking back from the last block, the bitsets inside one block are recomputed
+ * from its checkpoint and the target is traced through them, so memory is about
+ * 2 sqrt(n) bitsets: linear in the target.
+ *
+ * count() is the classic counting DP over a long per sum (by index, so equal numbers
+ * count separately); it saturates at Long.MAX_VALUE.
+ *
+ * Every pass over the bitset or the counts is charged to a SolverBudget, a node per
+ * word or sum. A run that is stopped by it has no answer: isFeasible() and witness()
+ * then report no solution and count() returns -1, so check the budget first.
+ */
+public class SubsetSumDP {
+    private static final int CHECK_INTERVAL = 1 << 16;
+
+    private final int[] numbers;
+    private final int target;
+    private final int words;
+    private final int blockSize;
+
+    // checkpoints[b] holds the sums reachable from the first b * blockSize numbers
+    private long[][] checkpoints;
+    private SolverBudget budget = SolverBudget.unlimited();
+    private long unspent;
+
+    public SubsetSumDP(int[] numbers, int target) {
+        if (target < 0) throw new IllegalArgumentException("Target must not be negative: " + target);
+        for (int x : numbers) {
+            if (x < 0) throw new IllegalArgumentException("Dynamic programming needs non-negative numbers, got " + x);
+        }
+        this.numbers = numbers.clone();
+        this.target = target;
+        this.words = (target >>> 6) + 1;
+        this.blockSize = Math.max(1, (int) Math.ceil(Math.sqrt(numbers.length)));
+    }
+
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    public boolean isFeasible() {
+        if (!buildCheckpoints()) return false;
+        long[] last = checkpoints[checkpoints.length - 1];
+        long[] reachable = Arrays.copyOf(last, words);
+        for (int i = (checkpoints.length - 1) * blockSize; i < numbers.length; i++) {
+            if (spend(words)) return false;
+            shiftOr(reachable, numbers[i]);
+        }
+        return get(reachable, target);
+    }
+
+    // Number of subsets (by index) whose sum is the target, Long.MAX_VALUE if at least that many
+    public long count() {
+        long[] counts = new long[target + 1];
+        counts[0] = 1;
+        for (int x : numbers) {
+            if (spend(target + 1)) return -1;
+            for (int s = target; s >= x; s--) {
+                long sum = counts[s] + counts[s - x];
+                counts[s] = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+        }
+        return counts[target];
+    }
+
+    // Indices of one subset that sums to the target, in ascending order; null if there is none
+    public int[] witnessIndices() {
+        if (!isFeasible()) return null;
+        int[] chosen = new int[numbers.length];
+        int size = 0;
+        int remaining = target;
+        long[][] block = new long[blockSize + 1][];
+        for (int b = checkpoints.length - 1; b >= 0; b--) {
+            int from = b * blockSize;
+            int to = Math.min(numbers.length, from + blockSize);
+            // block[k] holds the sums reachable from the first from + k numbers
+            block[0] = checkpoints[b];
+            for (int k = 1; k <= to - from; k++) {
+                if (spend(words)) return null;
+                if (block[k] == null) block[k] = new long[words];
+                System.arraycopy(block[k - 1], 0, block[k], 0, words);
+                shiftOr(block[k], numbers[from + k - 1]);
+            }
+            for (int i = to - 1; i >= from; i--) {
+                // Skip numbers the remaining sum does not need
+                if (get(block[i - from], remaining)) continue;
+                chosen[size++] = i;
+                remaining -= numbers[i];
+            }
+        }
+        int[] indices = new int[size];
+        for (int k = 0; k < size; k++) indices[k] = chosen[size - 1 - k];
+        return indices;
+    }
+
+    public List<Integer> witness() {
+        int[] indices = witnessIndices();
+        if (indices == null) return null;
+        List<Integer> subset = new ArrayList<>(indices.length);
+        for (int i : indices) subset.add(numbers[i]);
+        return subset;
+    }
+
+    // False if the budget ran out before all checkpoints were built
+    private boolean buildCheckpoints() {
+        if (checkpoints != null) return true;
+        int blocks = Math.max(1, (numbers.length + blockSize - 1) / blockSize);
+        long[][] built = new long[blocks][];
+        long[] reachable = new long[words];
+        reachable[0] = 1;
+        for (int b = 0; b < blocks; b++) {
+            built[b] = reachable.clone();
+            int to = Math.min(numbers.length, (b + 1) * blockSize);
+            for (int i = b * blockSize; i < to; i++) {
+                if (spend(words)) return false;
+                shiftOr(reachable, numbers[i]);
+            }
+        }
+        checkpoints = built;
+        return true;
+    }
+
+    // Charges the budget in batches of at least CHECK_INTERVAL; true once it has run out
+    private boolean spend(long nodes) {
+        unspent += nodes;
+        if (unspent < CHECK_INTERVAL) return budget.isStopped();
+        long charged = unspent;
+        unspent = 0;
+        return budget.spend(charged);
+    }
+
+    // reachable |= reachable << shift, dropping sums above the target; high words first so
+    // every word is read before it is overwritten
+    private void shiftOr(long[] reachable, int shift) {
+        if (shift > target) return;
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int i = words - 1; i >= wordShift; i--) {
+            long shifted = reachable[i - wordShift] << bitShift;
+            if (bitShift != 0 && i - wordShift > 0) shifted |= reachable[i - wordShift - 1] >>> (64 - bitShift);
+            reachable[i] |= shifted;
+        }
+        int topBits = (target & 63) + 1;
+        if (topBits < 64) reachable[words - 1] &= (1L << topBits) - 1;
+    }
+
+    private static boolean get(long[] bits, int sum) {
+        return (bits[sum >>> 6] & (1L << sum)) != 0;
+    }
+}
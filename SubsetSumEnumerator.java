@@ -0,0 +1,192 @@
+/*This is not part of the Eight Queens simulation */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/*
+ * Enumerates every SubsetSum solution on all cores. The include/exclude tree is split
+ * on the first few decisions; each prefix becomes a fork/join task that finishes its
+ * subtree sequentially. Solutions are streamed to a sink as long bit masks of the
+ * chosen indices, so nothing is kept on the heap however many there are. Every branch
+ * is bounded by the sums of the negative and positive numbers still to come, which
+ * keeps the search correct for negative input.
+ *
+ * Node and solution counts are LongAdders that each task adds its local counts to in
+ * batches, so they can be read while an enumeration runs (for progress) without the
+ * tasks contending on a shared counter. The explored share of the tree is kept the
+ * same way as in SubsetSumSearch: each branch that ends adds 2^-depth. Each flush
+ * also charges the budget, and once it runs out every task returns; the counts are
+ * then those of the part of the tree that was searched.
+ */
+public class SubsetSumEnumerator {
+    public static final int MAX_SIZE = 63;
+    private static final int SPLIT_DEPTH = 12;
+    private static final int FLUSH_INTERVAL = 1 << 12;
+
+    private final ForkJoinPool pool;
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder solutions = new LongAdder();
+    private final LongAdder explored = new LongAdder();
+    private SolverBudget budget = SolverBudget.unlimited();
+
+    public SubsetSumEnumerator() {
+        this(SolverJob.forkJoinPool());
+    }
+
+    public SubsetSumEnumerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Shared by all tasks of an enumeration
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // Counts of the current or last enumeration; safe to read from any thread while it runs
+    public long getNodes() { return nodes.sum(); }
+    public long getSolutions() { return solutions.sum(); }
+    public double getExploredFraction() { return SubsetSumSearch.fraction(explored.sum()); }
+
+    public long count(int[] numbers, long target) {
+        return enumerate(numbers, target, null);
+    }
+
+    // The sink is called concurrently from worker threads with each solution's index
+    // mask (bit i set if numbers[i] is in the subset); returns the number of solutions
+    public long enumerate(int[] numbers, long target, LongConsumer sink) {
+        if (numbers.length > MAX_SIZE) {
+            throw new IllegalArgumentException("Enumeration supports at most " + MAX_SIZE + " numbers, got " + numbers.length);
+        }
+        nodes.reset();
+        solutions.reset();
+        explored.reset();
+        Problem problem = new Problem(numbers.clone(), target, sink, budget);
+        pool.invoke(new PrefixTask(problem, 0, 0, 0L));
+        return solutions.sum();
+    }
+
+    public static List<Integer> toSubset(int[] numbers, long mask) {
+        List<Integer> subset = new ArrayList<>(Long.bitCount(mask));
+        for (long m = mask; m != 0; m &= m - 1) {
+            subset.add(numbers[Long.numberOfTrailingZeros(m)]);
+        }
+        return subset;
+    }
+
+    // The instance shared read-only by all tasks of one enumeration
+    private class Problem {
+        final int[] numbers;
+        final long target;
+        final LongConsumer sink;
+        final SolverBudget budget;
+        final int splitDepth;
+        // Smallest and largest sums the numbers from index i on can add
+        final long[] minSuffix, maxSuffix;
+
+        Problem(int[] numbers, long target, LongConsumer sink, SolverBudget budget) {
+            this.numbers = numbers;
+            this.target = target;
+            this.sink = sink;
+            this.budget = budget;
+            this.splitDepth = Math.min(numbers.length, SPLIT_DEPTH);
+            minSuffix = new long[numbers.length + 1];
+            maxSuffix = new long[numbers.length + 1];
+            for (int i = numbers.length - 1; i >= 0; i--) {
+                minSuffix[i] = minSuffix[i + 1] + Math.min(0, numbers[i]);
+                maxSuffix[i] = maxSuffix[i + 1] + Math.max(0, numbers[i]);
+            }
+        }
+
+        boolean canReach(int index, long sum) {
+            return sum + minSuffix[index] <= target && sum + maxSuffix[index] >= target;
+        }
+    }
+
+    private class PrefixTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Problem problem;
+        private final int index;
+        private final long sum;
+        private final long mask;
+
+        PrefixTask(Problem problem, int index, long sum, long mask) {
+            this.problem = problem;
+            this.index = index;
+            this.sum = sum;
+            this.mask = mask;
+        }
+
+        @Override
+        protected void compute() {
+            // The subtree searches charge the budget; a task only has to see that it ran out
+            if (problem.budget.isStopped()) return;
+            if (index >= problem.splitDepth) {
+                Search search = new Search(problem);
+                search.run(index, sum, mask);
+                search.flush();
+                return;
+            }
+            nodes.increment();
+            if (!problem.canReach(index, sum)) {
+                explored.add(SubsetSumSearch.subtreeWeight(index));
+                return;
+            }
+            long included = sum + problem.numbers[index];
+            invokeAll(new PrefixTask(problem, index + 1, included, mask | (1L << index)),
+                    new PrefixTask(problem, index + 1, sum, mask));
+        }
+    }
+
+    // Sequential search for one subtree, counting locally and flushing to the adders
+    private class Search {
+        private final Problem problem;
+        private final int n;
+        private long localNodes;
+        private long localSolutions;
+        private long localExplored;
+        private boolean stopped;
+
+        Search(Problem problem) {
+            this.problem = problem;
+            this.n = problem.numbers.length;
+        }
+
+        void run(int index, long sum, long mask) {
+            if (stopped) return;
+            if (++localNodes >= FLUSH_INTERVAL) {
+                flush();
+                stopped = problem.budget.spend(FLUSH_INTERVAL);
+                if (stopped) return;
+            }
+            if (!problem.canReach(index, sum)) {
+                localExplored += SubsetSumSearch.subtreeWeight(index);
+                return;
+            }
+            if (index == n) {
+                // The bounds leave only sum == target here
+                localSolutions++;
+                localExplored += SubsetSumSearch.subtreeWeight(index);
+                if (problem.sink != null) problem.sink.accept(mask);
+                return;
+            }
+            run(index + 1, sum + problem.numbers[index], mask | (1L << index));
+            run(index + 1, sum, mask);
+        }
+
+        void flush() {
+            nodes.add(localNodes);
+            solutions.add(localSolutions);
+            explored.add(localExplored);
+            localNodes = 0;
+            localSolutions = 0;
+            localExplored = 0;
+        }
+    }
+}
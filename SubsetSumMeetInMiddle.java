@@ -0,0 +1,203 @@
+/*This is not part of the Eight Queens simulation */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/*
+ * Meet-in-the-middle SubsetSum for inputs far beyond what the include/exclude search
+ * can visit. The array is split in two; the subset sums of each half are built in
+ * sorted order in primitive long arrays (merging the sums without and with each
+ * element, so no sort and no boxing), and a two-pointer pass over the left sums
+ * ascending and the right sums descending finds every pair that adds up to the target.
+ * Time is O(n 2^(n/2)) and memory O(2^(n/2)), so 40 elements take milliseconds.
+ *
+ * Unlike the visualized search it counts every subset of indices, and it works for
+ * negative numbers and zeros. A solution is a long bit mask of the chosen indices.
+ *
+ * A SolverBudget is charged a node per sum merged while building the halves and per
+ * step of the matching pass. When it runs out count() returns -1 and the enumeration
+ * ends with the solutions passed so far.
+ */
+public class SubsetSumMeetInMiddle {
+    // Each half keeps 2^24 sums at most, a few hundred MB with the masks
+    public static final int MAX_SIZE = 48;
+    private static final int CHECK_INTERVAL = 1 << 16;
+
+    private final int[] numbers;
+    private final long target;
+    private final int leftSize;
+
+    // Subset sums of each half in ascending order; the masks are only built for enumeration
+    private long[] leftSums, rightSums;
+    private int[] leftMasks, rightMasks;
+    private SolverBudget budget = SolverBudget.unlimited();
+
+    public SubsetSumMeetInMiddle(int[] numbers, long target) {
+        if (numbers.length > MAX_SIZE) {
+            throw new IllegalArgumentException("Meet in the middle supports at most " + MAX_SIZE + " numbers, got " + numbers.length);
+        }
+        this.numbers = numbers.clone();
+        this.target = target;
+        this.leftSize = numbers.length / 2;
+    }
+
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    // Number of subsets (by index) whose sum is the target, -1 if the budget ran out
+    public long count() {
+        if (!buildHalves(false)) return -1;
+        long count = 0;
+        int i = 0;
+        int j = rightSums.length - 1;
+        int steps = 0;
+        while (i < leftSums.length && j >= 0) {
+            if ((++steps & (CHECK_INTERVAL - 1)) == 0 && budget.spend(CHECK_INTERVAL)) return -1;
+            long sum = leftSums[i] + rightSums[j];
+            if (sum < target) {
+                i++;
+            } else if (sum > target) {
+                j--;
+            } else {
+                int leftEnd = runEnd(leftSums, i);
+                int rightStart = runStart(rightSums, j);
+                count += (long) (leftEnd - i) * (j - rightStart + 1);
+                i = leftEnd;
+                j = rightStart - 1;
+            }
+        }
+        return count;
+    }
+
+    // Passes each solution's index mask to the visitor until it returns false
+    public void forEachSolution(LongPredicate visitor) {
+        if (!buildHalves(true)) return;
+        int i = 0;
+        int j = rightSums.length - 1;
+        int steps = 0;
+        while (i < leftSums.length && j >= 0) {
+            if ((++steps & (CHECK_INTERVAL - 1)) == 0 && budget.spend(CHECK_INTERVAL)) return;
+            long sum = leftSums[i] + rightSums[j];
+            if (sum < target) {
+                i++;
+            } else if (sum > target) {
+                j--;
+            } else {
+                int leftEnd = runEnd(leftSums, i);
+                int rightStart = runStart(rightSums, j);
+                for (int a = i; a < leftEnd; a++) {
+                    for (int b = rightStart; b <= j; b++) {
+                        long mask = (leftMasks[a] & 0xFFFFFFFFL) | ((rightMasks[b] & 0xFFFFFFFFL) << leftSize);
+                        if (!visitor.test(mask)) return;
+                    }
+                }
+                i = leftEnd;
+                j = rightStart - 1;
+            }
+        }
+    }
+
+    // Up to limit solutions as lists of values, in the order forEachSolution visits them
+    public List<List<Integer>> solutions(int limit) {
+        List<List<Integer>> solutions = new ArrayList<>();
+        if (limit <= 0) return solutions;
+        forEachSolution(mask -> {
+            solutions.add(toSubset(mask));
+            return solutions.size() < limit;
+        });
+        return solutions;
+    }
+
+    // Peak heap use, in bytes, of enumerating n numbers: both halves and the merge buffer,
+    // each with its masks
+    public static long memoryBytes(int n) {
+        int left = n / 2;
+        int right = n - left;
+        return 12L * ((1L << left) + 2 * (1L << right));
+    }
+
+    public List<Integer> toSubset(long mask) {
+        List<Integer> subset = new ArrayList<>(Long.bitCount(mask));
+        for (long m = mask; m != 0; m &= m - 1) {
+            subset.add(numbers[Long.numberOfTrailingZeros(m)]);
+        }
+        return subset;
+    }
+
+    // False if the budget ran out; the halves then stay unbuilt
+    private boolean buildHalves(boolean withMasks) {
+        if (leftSums != null && (!withMasks || leftMasks != null)) return true;
+        int rightSize = numbers.length - leftSize;
+        long[] scratch = new long[1 << rightSize];
+        int[] maskScratch = withMasks ? new int[1 << rightSize] : null;
+        long[] left = new long[1 << leftSize];
+        int[] leftBits = withMasks ? new int[1 << leftSize] : null;
+        if (!buildHalf(0, leftSize, left, leftBits, scratch, maskScratch)) return false;
+        long[] right = new long[1 << rightSize];
+        int[] rightBits = withMasks ? new int[1 << rightSize] : null;
+        if (!buildHalf(leftSize, rightSize, right, rightBits, scratch, maskScratch)) return false;
+        leftSums = left;
+        leftMasks = leftBits;
+        rightSums = right;
+        rightMasks = rightBits;
+        return true;
+    }
+
+    // Sorted subset sums of numbers[from, from + size): after adding each element the
+    // sums so far and the same sums plus the element are merged, both already sorted;
+    // false if the budget ran out
+    private boolean buildHalf(int from, int size, long[] sums, int[] masks, long[] scratch, int[] maskScratch) {
+        // Alternate between the two buffers so the last merge lands in sums
+        long[] current = size % 2 == 0 ? sums : scratch;
+        long[] next = size % 2 == 0 ? scratch : sums;
+        int[] currentMasks = size % 2 == 0 ? masks : maskScratch;
+        int[] nextMasks = size % 2 == 0 ? maskScratch : masks;
+        current[0] = 0;
+        if (currentMasks != null) currentMasks[0] = 0;
+        int length = 1;
+        for (int k = 0; k < size; k++) {
+            long value = numbers[from + k];
+            int bit = 1 << k;
+            int a = 0;
+            int b = 0;
+            int out = 0;
+            // Merged in chunks of CHECK_INTERVAL sums, each charged to the budget (the
+            // merges shorter than that add up to a few chunks and are not charged)
+            while (out < 2 * length) {
+                int chunkEnd = (int) Math.min(2L * length, out + CHECK_INTERVAL);
+                if (chunkEnd - out == CHECK_INTERVAL && budget.spend(CHECK_INTERVAL)) return false;
+                for (; out < chunkEnd; out++) {
+                    // Ties take the sum without the element first, which keeps the order stable
+                    if (b == length || (a < length && current[a] <= current[b] + value)) {
+                        next[out] = current[a];
+                        if (nextMasks != null) nextMasks[out] = currentMasks[a];
+                        a++;
+                    } else {
+                        next[out] = current[b] + value;
+                        if (nextMasks != null) nextMasks[out] = currentMasks[b] | bit;
+                        b++;
+                    }
+                }
+            }
+            length *= 2;
+            long[] swap = current; current = next; next = swap;
+            int[] swapMasks = currentMasks; currentMasks = nextMasks; nextMasks = swapMasks;
+        }
+        return true;
+    }
+
+    // End (exclusive) of the run of equal values starting at i
+    private static int runEnd(long[] values, int i) {
+        int end = i + 1;
+        while (end < values.length && values[end] == values[i]) end++;
+        return end;
+    }
+
+    // Start of the run of equal values ending at j
+    private static int runStart(long[] values, int j) {
+        int start = j;
+        while (start > 0 && values[start - 1] == values[j]) start--;
+        return start;
+    }
+}
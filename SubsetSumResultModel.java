@@ -0,0 +1,105 @@
+/*This is not part of the Eight Queens simulation */
+import javax.swing.AbstractListModel;
+import java.util.Arrays;
+
+/*
+ * List model over a SubsetSumResults store for a JList with a fixed cell size. Such a
+ * list only asks for the rows it paints, so a row is formatted when it scrolls into
+ * view and nothing is built for the rest, however many solutions there are.
+ *
+ * An optional filter (subset size, an index that must be included) keeps the positions
+ * of the matching solutions. refresh() is called on the event thread while the solver
+ * runs: it looks only at solutions added since the last call and announces the new
+ * rows, so the list fills in incrementally.
+ */
+public class SubsetSumResultModel extends AbstractListModel<String> {
+    private static final long serialVersionUID = 1L;
+    private final int[] numbers;
+    private final SubsetSumResults results;
+
+    // Filter; -1 means any size, 0 means no required index
+    private int size = -1;
+    private long required;
+
+    // Store positions of the rows when filtering, and how much of the store was scanned
+    private int[] rows = new int[1024];
+    private int rowCount;
+    private int scanned;
+
+    public SubsetSumResultModel(int[] numbers, SubsetSumResults results) {
+        this.numbers = numbers;
+        this.results = results;
+    }
+
+    public SubsetSumResults getResults() { return results; }
+
+    public boolean isFiltered() {
+        return size >= 0 || required != 0;
+    }
+
+    // size < 0 accepts any size; includedIndex < 0 accepts any subset
+    public void setFilter(int size, int includedIndex) {
+        if (includedIndex >= numbers.length || includedIndex >= 64) {
+            throw new IllegalArgumentException("No index " + includedIndex + " in " + numbers.length + " numbers");
+        }
+        int oldRows = getSize();
+        this.size = size;
+        this.required = includedIndex < 0 ? 0 : 1L << includedIndex;
+        rowCount = 0;
+        scanned = 0;
+        if (oldRows > 0) fireIntervalRemoved(this, 0, oldRows - 1);
+        refresh();
+    }
+
+    // Picks up the solutions added since the last call; event thread only
+    public void refresh() {
+        int available = results.size();
+        if (!isFiltered()) {
+            if (available > scanned) {
+                int first = scanned;
+                scanned = available;
+                fireIntervalAdded(this, first, available - 1);
+            }
+            return;
+        }
+        int first = rowCount;
+        for (; scanned < available; scanned++) {
+            long mask = results.get(scanned);
+            if ((size < 0 || Long.bitCount(mask) == size) && (mask & required) == required) {
+                if (rowCount == rows.length) rows = Arrays.copyOf(rows, rowCount * 2);
+                rows[rowCount++] = scanned;
+            }
+        }
+        if (rowCount > first) fireIntervalAdded(this, first, rowCount - 1);
+    }
+
+    @Override
+    public int getSize() {
+        return isFiltered() ? rowCount : scanned;
+    }
+
+    // Row showing the solution at the given store position, -1 if it is filtered out or not there yet
+    public int rowOf(int position) {
+        if (!isFiltered()) return position >= 0 && position < scanned ? position : -1;
+        int row = Arrays.binarySearch(rows, 0, rowCount, position);
+        return row >= 0 ? row : -1;
+    }
+
+    // Mask of the solution shown in the given row
+    public long getMask(int row) {
+        return results.get(isFiltered() ? rows[row] : row);
+    }
+
+    @Override
+    public String getElementAt(int row) {
+        int position = isFiltered() ? rows[row] : row;
+        long mask = results.get(position);
+        StringBuilder text = new StringBuilder();
+        text.append(position + 1).append(". [");
+        for (long m = mask; m != 0; m &= m - 1) {
+            if (m != mask) text.append(", ");
+            text.append(numbers[Long.numberOfTrailingZeros(m)]);
+        }
+        return text.append("]  size ").append(Long.bitCount(mask)).toString();
+    }
+}
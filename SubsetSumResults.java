@@ -0,0 +1,76 @@
+/*This is not part of the Eight Queens simulation */
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Solutions of one SubsetSum run as long index masks, appended by the solver (from any
+ * thread) and read by the results view while the run is still going. Masks are kept
+ * in fixed-size pages, so growing never copies what is already stored, and at most
+ * MAX_KEPT of them are kept; later solutions are only counted.
+ *
+ * Appends take no lock: a slot is reserved with one atomic increment, written, and
+ * then counted in its page's fill count. A page whose count reaches PAGE_SIZE is
+ * complete, and size() covers the complete pages in order plus the last page once
+ * every slot reserved in it is written, so any index below size() can be read
+ * without locking. While workers are still adding, size() may lag by up to a page.
+ */
+public class SubsetSumResults {
+    public static final int MAX_KEPT = 1 << 24;
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGES = MAX_KEPT >> PAGE_BITS;
+
+    private final AtomicReferenceArray<long[]> pages = new AtomicReferenceArray<>(PAGES);
+    private final AtomicIntegerArray filled = new AtomicIntegerArray(PAGES);
+    // Slots reserved so far, which is every solution added
+    private final AtomicLong reserved = new AtomicLong();
+    // Start of the first page that is not complete yet
+    private final AtomicInteger completed = new AtomicInteger();
+
+    // Returns false once the store is full (the solution is still counted)
+    public boolean add(long mask) {
+        long slot = reserved.getAndIncrement();
+        if (slot >= MAX_KEPT) return false;
+        int index = (int) slot;
+        int page = index >>> PAGE_BITS;
+        long[] values = pages.get(page);
+        if (values == null) {
+            pages.compareAndSet(page, null, new long[PAGE_SIZE]);
+            values = pages.get(page);
+        }
+        values[index & (PAGE_SIZE - 1)] = mask;
+        if (filled.incrementAndGet(page) == PAGE_SIZE) advanceCompleted();
+        return true;
+    }
+
+    // Moves past every complete page; pages may complete out of order
+    private void advanceCompleted() {
+        int start;
+        while ((start = completed.get()) < MAX_KEPT && filled.get(start >>> PAGE_BITS) == PAGE_SIZE) {
+            completed.compareAndSet(start, start + PAGE_SIZE);
+        }
+    }
+
+    // Solutions kept, readable with get()
+    public int size() {
+        int start = completed.get();
+        if (start == MAX_KEPT) return start;
+        // The fill count is read before the reservations, so it cannot include a slot
+        // reserved later than the ones it is compared with
+        int written = filled.get(start >>> PAGE_BITS);
+        long pending = Math.min(reserved.get(), MAX_KEPT) - start;
+        return written == Math.min(pending, PAGE_SIZE) ? start + written : start;
+    }
+
+    // Solutions added, including any beyond MAX_KEPT
+    public long getTotal() { return reserved.get(); }
+
+    public long get(int index) {
+        if (index < 0 || (index >= completed.get() && index >= size())) {
+            throw new IndexOutOfBoundsException("Solution " + index + " of " + size());
+        }
+        return pages.get(index >>> PAGE_BITS)[index & (PAGE_SIZE - 1)];
+    }
+}
@@ -0,0 +1,150 @@
+/*This is not part of the Eight Queens simulation */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/*
+ * The include/exclude search behind the SubsetSum visualizer, kept free of Swing so it
+ * can be run and measured headless. Every step is recorded in a SubsetSumTrail that
+ * the visualizer replays with Next/Previous Step.
+ *
+ * Progress is published for other threads to sample: the step count and the share of
+ * the include/exclude tree already explored. A subtree rooted at index d is 2^-d of the
+ * full tree, so every branch that ends (a solution, a dead end, or a cut) adds its
+ * weight, and the total reaches one when the search is done. The counters are plain
+ * fields on the search thread and copied to atomics every PUBLISH_INTERVAL steps, which
+ * is also when the steps are charged to the budget; once it runs out the search
+ * unwinds and keeps the solutions and trail it has.
+ *
+ * Solutions are not kept here: the chosen indices travel down the recursion as a long
+ * mask, and each solution's mask goes to the sink, so up to 63 numbers are supported.
+ * Headless runs that only need the counts can leave out the trail as well.
+ */
+public class SubsetSumSearch {
+    private static final int PUBLISH_INTERVAL = 1024;
+    // Fixed-point weight of the whole tree; a subtree at index d weighs WHOLE_TREE >> d
+    static final long WHOLE_TREE = 1L << 62;
+
+    private final int[] numbers;
+    private final int targetSum;
+    private int backtrackSteps = 0;
+    private long solutionCount;
+    private final SubsetSumTrail trail;
+    // negativeSuffix[i] is the sum of the negative numbers from index i on
+    private final int[] negativeSuffix;
+    private long explored;
+    private final AtomicLong publishedSteps = new AtomicLong();
+    private final AtomicLong publishedExplored = new AtomicLong();
+    private LongConsumer solutionSink;
+    private SolverBudget budget = SolverBudget.unlimited();
+    private boolean stopped;
+
+    // A single step's state, rebuilt from the trail when it is shown
+    static class BacktrackState {
+        int index;
+        int currentSum;
+        List<Integer> currentSolution;
+        List<Integer> indexPath;
+        String description;
+
+        public BacktrackState(int index, int currentSum, List<Integer> currentSolution,
+                            List<Integer> indexPath, String description) {
+            this.index = index;
+            this.currentSum = currentSum;
+            this.currentSolution = new ArrayList<>(currentSolution);
+            this.indexPath = new ArrayList<>(indexPath);
+            this.description = description;
+        }
+    }
+
+    public SubsetSumSearch(int[] numbers, int targetSum) {
+        this(numbers, targetSum, true);
+    }
+
+    // Without a trail getTrail() returns null and memory stays constant
+    public SubsetSumSearch(int[] numbers, int targetSum, boolean recordTrail) {
+        if (numbers.length > 63) throw new IllegalArgumentException("Index masks need at most 63 numbers, got " + numbers.length);
+        this.numbers = numbers;
+        this.targetSum = targetSum;
+        this.trail = recordTrail ? new SubsetSumTrail(numbers) : null;
+        this.negativeSuffix = new int[numbers.length + 1];
+        for (int i = numbers.length - 1; i >= 0; i--) {
+            negativeSuffix[i] = negativeSuffix[i + 1] + Math.min(0, numbers[i]);
+        }
+    }
+
+    // Called on the searching thread with the index mask of every solution
+    public void setSolutionSink(LongConsumer solutionSink) {
+        this.solutionSink = solutionSink;
+    }
+
+    public void setBudget(SolverBudget budget) {
+        this.budget = budget;
+    }
+
+    public int getBacktrackSteps() { return backtrackSteps; }
+    public long getSolutionCount() { return solutionCount; }
+    public SubsetSumTrail getTrail() { return trail; }
+
+    // Progress so far, safe to read from any thread while the search runs
+    public long getStepsSoFar() { return publishedSteps.get(); }
+    public double getExploredFraction() { return fraction(publishedExplored.get()); }
+
+    static long subtreeWeight(int index) {
+        return index >= 62 ? 1 : WHOLE_TREE >> index;
+    }
+
+    static double fraction(long explored) {
+        return Math.min(1.0, (double) explored / WHOLE_TREE);
+    }
+
+    public void solve() {
+        findAllSubsets(0, 0, 0L);
+        publish();
+    }
+
+    private void publish() {
+        publishedSteps.lazySet(backtrackSteps);
+        publishedExplored.lazySet(explored);
+    }
+
+    // mask holds the indices included so far
+    private void record(int op, int index) {
+        if (trail != null) trail.record(op, index);
+    }
+
+    public void findAllSubsets(int index, int sum, long mask) {
+        if (stopped) return;
+        record(SubsetSumTrail.EXPLORE, index);
+
+        if (++backtrackSteps % PUBLISH_INTERVAL == 0) {
+            publish();
+            stopped = budget.spend(PUBLISH_INTERVAL);
+        }
+
+        // A subset is only complete once every number has been decided: zeros and
+        // negatives after a match can still be taken and give further solutions
+        if (index == numbers.length && sum == targetSum) {
+            solutionCount++;
+            if (solutionSink != null) solutionSink.accept(mask);
+            record(SubsetSumTrail.SOLUTION, index);
+            explored += subtreeWeight(index);
+            return;
+        }
+        // Overshooting only ends the branch if the remaining negatives cannot bring the sum back
+        if (index == numbers.length || sum + negativeSuffix[index] > targetSum) {
+            record(SubsetSumTrail.BACKTRACK, index);
+            explored += subtreeWeight(index);
+            return;
+        }
+
+        // Include current number
+        record(SubsetSumTrail.INCLUDE, index);
+        findAllSubsets(index + 1, sum + numbers[index], mask | 1L << index);
+
+        // Exclude current number
+        record(SubsetSumTrail.EXCLUDE, index);
+        findAllSubsets(index + 1, sum, mask);
+    }
+}
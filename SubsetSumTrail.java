@@ -0,0 +1,150 @@
+/*This is not part of the Eight Queens simulation */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Step history of a SubsetSumSearch stored as a trail of events, one int each (an
+ * opcode and an element index). The chosen subset only changes on include and exclude
+ * events, and both can be undone, so the state after any step is rebuilt on demand:
+ * stepping one event forward or back moves a cursor, and a jump restores the nearest
+ * checkpoint (the chosen indices, saved every CHECKPOINT_INTERVAL events) and replays
+ * from there. Memory is four bytes per step instead of a copied state per step.
+ */
+public class SubsetSumTrail {
+    public static final int EXPLORE = 0;
+    public static final int SOLUTION = 1;
+    public static final int BACKTRACK = 2;
+    public static final int INCLUDE = 3;
+    public static final int EXCLUDE = 4;
+
+    private static final int OP_SHIFT = 28;
+    private static final int INDEX_MASK = (1 << OP_SHIFT) - 1;
+    private static final int CHECKPOINT_INTERVAL = 1024;
+
+    private final int[] numbers;
+    private int[] events = new int[1024];
+    private int size;
+
+    // Chosen indices before event j * CHECKPOINT_INTERVAL, stored back to back in checkpointPaths
+    private int[] checkpointStarts = new int[16];
+    private int checkpoints;
+    private int[] checkpointPaths = new int[64];
+    private int checkpointPathsSize;
+
+    // Chosen indices as the search records events
+    private final int[] path;
+    private int depth;
+
+    // Chosen indices and sum after event cursor, used to answer stateAt
+    private final int[] cursorPath;
+    private int cursorDepth;
+    private int cursorSum;
+    private int cursor = -1;
+
+    public SubsetSumTrail(int[] numbers) {
+        this.numbers = numbers;
+        this.path = new int[numbers.length];
+        this.cursorPath = new int[numbers.length];
+    }
+
+    public int size() { return size; }
+
+    // Appends an event; called by the search in the order the steps happen
+    public void record(int op, int index) {
+        if (size % CHECKPOINT_INTERVAL == 0) checkpoint();
+        if (size == events.length) events = Arrays.copyOf(events, size * 2);
+        events[size++] = (op << OP_SHIFT) | index;
+        if (op == INCLUDE) {
+            path[depth++] = index;
+        } else if (op == EXCLUDE) {
+            depth--;
+        }
+    }
+
+    public int opAt(int step) { return events[step] >>> OP_SHIFT; }
+    public int indexAt(int step) { return events[step] & INDEX_MASK; }
+
+    // The search state right after the given step (0-based)
+    public SubsetSumSearch.BacktrackState stateAt(int step) {
+        if (step < 0 || step >= size) throw new IndexOutOfBoundsException("Step " + step + " of " + size);
+        moveCursor(step);
+        List<Integer> subset = new ArrayList<>(cursorDepth);
+        List<Integer> indexPath = new ArrayList<>(cursorDepth);
+        for (int i = 0; i < cursorDepth; i++) {
+            subset.add(numbers[cursorPath[i]]);
+            indexPath.add(cursorPath[i]);
+        }
+        return new SubsetSumSearch.BacktrackState(indexAt(step), cursorSum, subset, indexPath, describe(step));
+    }
+
+    private String describe(int step) {
+        int index = indexAt(step);
+        switch (opAt(step)) {
+            case EXPLORE: return "Exploring index " + index;
+            case SOLUTION: return "Solution found!";
+            case BACKTRACK: return "Backtracking from index " + index;
+            case INCLUDE: return "Including " + numbers[index] + " at index " + index;
+            default: return "Excluding " + numbers[index] + " at index " + index;
+        }
+    }
+
+    private void checkpoint() {
+        if (checkpoints == checkpointStarts.length) checkpointStarts = Arrays.copyOf(checkpointStarts, checkpoints * 2);
+        if (checkpointPathsSize + depth > checkpointPaths.length) {
+            checkpointPaths = Arrays.copyOf(checkpointPaths, Math.max(checkpointPaths.length * 2, checkpointPathsSize + depth));
+        }
+        checkpointStarts[checkpoints++] = checkpointPathsSize;
+        System.arraycopy(path, 0, checkpointPaths, checkpointPathsSize, depth);
+        checkpointPathsSize += depth;
+    }
+
+    private void moveCursor(int step) {
+        if (step == cursor) return;
+        if (step == cursor + 1) {
+            apply(events[++cursor]);
+            return;
+        }
+        if (step == cursor - 1) {
+            undo(events[cursor--]);
+            return;
+        }
+        // Restore the checkpoint at or before the step and replay forward
+        int checkpoint = step / CHECKPOINT_INTERVAL;
+        int start = checkpointStarts[checkpoint];
+        int end = checkpoint + 1 < checkpoints ? checkpointStarts[checkpoint + 1] : checkpointPathsSize;
+        cursorDepth = end - start;
+        System.arraycopy(checkpointPaths, start, cursorPath, 0, cursorDepth);
+        cursorSum = 0;
+        for (int i = 0; i < cursorDepth; i++) cursorSum += numbers[cursorPath[i]];
+        for (cursor = checkpoint * CHECKPOINT_INTERVAL - 1; cursor < step; ) apply(events[++cursor]);
+    }
+
+    private void apply(int event) {
+        int index = event & INDEX_MASK;
+        switch (event >>> OP_SHIFT) {
+            case INCLUDE:
+                cursorPath[cursorDepth++] = index;
+                cursorSum += numbers[index];
+                break;
+            case EXCLUDE:
+                cursorDepth--;
+                cursorSum -= numbers[index];
+                break;
+        }
+    }
+
+    private void undo(int event) {
+        int index = event & INDEX_MASK;
+        switch (event >>> OP_SHIFT) {
+            case INCLUDE:
+                cursorDepth--;
+                cursorSum -= numbers[index];
+                break;
+            case EXCLUDE:
+                cursorPath[cursorDepth++] = index;
+                cursorSum += numbers[index];
+                break;
+        }
+    }
+}